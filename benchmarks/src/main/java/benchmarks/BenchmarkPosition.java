@@ -0,0 +1,28 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.perft.PerftSuite;
+
+/**
+ * Representative positions from each phase of the game
+ */
+public enum BenchmarkPosition {
+    START(PerftSuite.START.fen()),
+    OPENING("r1bqk1nr/pppp1ppp/2n5/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4"),
+    MIDDLEGAME(PerftSuite.MIDDLEGAME.fen()),
+    KIWIPETE(PerftSuite.KIWIPETE.fen()),
+    ENDGAME(PerftSuite.ENDGAME.fen());
+
+    private final String fen;
+
+    BenchmarkPosition(String fen) {
+        this.fen = fen;
+    }
+
+    /**
+     * @return a fresh game set up in this position
+     */
+    public ChessGame newGame() {
+        return ChessGame.fromFen(fen);
+    }
+}
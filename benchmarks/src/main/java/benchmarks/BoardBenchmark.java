@@ -0,0 +1,45 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copying, comparing and hashing boards
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param
+    private BenchmarkPosition position;
+
+    private ChessBoard board;
+    private ChessBoard same;
+
+    @Setup
+    public void setup() {
+        board = position.newGame().getBoard();
+        same = position.newGame().getBoard();
+    }
+
+    @Benchmark
+    public ChessBoard copy() {
+        return new ChessBoard(board);
+    }
+
+    @Benchmark
+    public boolean boardEquals() {
+        return board.equals(same);
+    }
+
+    @Benchmark
+    public int boardHashCode() {
+        return board.hashCode();
+    }
+}
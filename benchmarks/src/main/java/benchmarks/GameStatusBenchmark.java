@@ -0,0 +1,66 @@
+package benchmarks;
+
+import chess.ChessGame;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Check, checkmate and stalemate detection for the side to move.
+ * <p>
+ * Checkmate and stalemate detection read the game's cached legal moves, so those
+ * benchmarks each run on a fresh copy of the game, made outside the timed call,
+ * to time generating the moves. The cached benchmark times asking again once the
+ * moves are known.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStatusBenchmark {
+
+    @Param
+    private BenchmarkPosition position;
+
+    private ChessGame game;
+
+    @Setup
+    public void setup() {
+        game = position.newGame();
+    }
+
+    /**
+     * A copy of the benchmark's game with nothing cached, made before each call
+     */
+    @State(Scope.Thread)
+    public static class FreshGame {
+        private ChessGame game;
+
+        @Setup(Level.Invocation)
+        public void setup(GameStatusBenchmark benchmark) {
+            game = new ChessGame(benchmark.game);
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmate(FreshGame fresh) {
+        return fresh.game.isInCheckmate(fresh.game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInStalemate(FreshGame fresh) {
+        return fresh.game.isInStalemate(fresh.game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmateCached() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+}
@@ -0,0 +1,50 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applying a move, with and without the validation done by {@link ChessGame#makeMove}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MakeMoveBenchmark {
+
+    @Param
+    private BenchmarkPosition position;
+
+    private ChessGame game;
+    private ChessMove move;
+    private int packedMove;
+
+    @Setup
+    public void setup() {
+        game = position.newGame();
+        move = game.legalMoves().iterator().next();
+        packedMove = game.findLegalMove(move);
+    }
+
+    @Benchmark
+    public long makeMove() throws InvalidMoveException {
+        game.makeMove(move);
+        long key = game.getZobristKey();
+        game.undoMove();
+        return key;
+    }
+
+    @Benchmark
+    public long doMove() {
+        game.doMove(packedMove);
+        long key = game.getZobristKey();
+        game.undoMove();
+        return key;
+    }
+}
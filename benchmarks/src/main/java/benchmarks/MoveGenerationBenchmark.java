@@ -0,0 +1,94 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.bitboard.Bitboards;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legal move generation through the public API and the packed move buffer.
+ * <p>
+ * A game caches its legal moves until the position changes, so the public API
+ * benchmarks each run on a fresh copy of the game, made outside the timed call,
+ * to time generating the moves. The cached benchmarks time asking again for
+ * moves already generated.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    @Param
+    private BenchmarkPosition position;
+
+    private ChessGame game;
+    private List<ChessPosition> pieces;
+    private int[] buffer;
+
+    @Setup
+    public void setup() {
+        game = position.newGame();
+        pieces = new ArrayList<>();
+        long own = game.getBoard().getColorBitboard(Bitboards.colorIndex(game.getTeamTurn()));
+        while (own != 0) {
+            pieces.add(Bitboards.position(Long.numberOfTrailingZeros(own)));
+            own &= own - 1;
+        }
+        buffer = new int[ChessGame.MAX_MOVES];
+    }
+
+    /**
+     * A copy of the benchmark's game with nothing cached, made before each call
+     */
+    @State(Scope.Thread)
+    public static class FreshGame {
+        private ChessGame game;
+
+        @Setup(Level.Invocation)
+        public void setup(MoveGenerationBenchmark benchmark) {
+            game = new ChessGame(benchmark.game);
+        }
+    }
+
+    @Benchmark
+    public void validMoves(FreshGame fresh, Blackhole blackhole) {
+        for (ChessPosition piece : pieces) {
+            for (ChessMove move : fresh.game.validMoves(piece)) {
+                blackhole.consume(move);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object legalMoves(FreshGame fresh) {
+        return fresh.game.legalMoves();
+    }
+
+    @Benchmark
+    public void validMovesCached(Blackhole blackhole) {
+        for (ChessPosition piece : pieces) {
+            for (ChessMove move : game.validMoves(piece)) {
+                blackhole.consume(move);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object legalMovesCached() {
+        return game.legalMoves();
+    }
+
+    @Benchmark
+    public int generateLegalMoves() {
+        return game.generateLegalMoves(buffer);
+    }
+}
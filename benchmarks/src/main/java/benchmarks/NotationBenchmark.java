@@ -0,0 +1,45 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.Notation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting and parsing one move in SAN, as done for every move notification
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotationBenchmark {
+
+    @Param
+    private BenchmarkPosition position;
+
+    private ChessGame game;
+    private ChessMove move;
+    private String san;
+
+    @Setup
+    public void setup() throws InvalidMoveException {
+        game = position.newGame();
+        move = game.legalMoves().iterator().next();
+        san = Notation.toSan(game, move);
+    }
+
+    @Benchmark
+    public String toSan() throws InvalidMoveException {
+        return Notation.toSan(game, move);
+    }
+
+    @Benchmark
+    public ChessMove parseSan() throws InvalidMoveException {
+        return Notation.parseSan(game, san);
+    }
+}
@@ -0,0 +1,47 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed-depth search from each position, with a transposition table cleared
+ * before every search so each one does the same work
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param
+    private BenchmarkPosition position;
+
+    @Param({"5"})
+    private int depth;
+
+    private final TranspositionTable table = new TranspositionTable(16);
+    private final Search search = new Search(table);
+    private ChessGame game;
+
+    @Setup
+    public void setup() {
+        game = position.newGame();
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @Benchmark
+    public long search() {
+        return search.search(game, SearchLimits.depth(depth)).nodes();
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Scanner;
 
 import chess.*;
 import model.request.*;
+import model.result.AnalysisResult;
 import server.ServerFacade;
 import ui.ChessBoardUI;
 import websocket.NotificationHandler;
@@ -80,6 +81,7 @@ public class ChessClient implements NotificationHandler {
             case "create" -> createGame(params);
             case "list" -> listGames();
             case "join" -> joinGame(params);
+            case "bot" -> addBot(params);
             case "observe" -> observeGame(params);
             case "logout" -> logout();
             case "quit" -> "quit";
@@ -93,6 +95,7 @@ public class ChessClient implements NotificationHandler {
             case "leave" -> leave(params);
             case "move" -> makeMove(params);
             case "resign" -> resign(params);
+            case "draw" -> claimDraw(params);
             case "highlight" -> highlightLegalMoves(params);
             default -> help();
         };
@@ -103,6 +106,7 @@ public class ChessClient implements NotificationHandler {
             case "redraw" -> redrawBoard(params);
             case "leave" -> leave(params);
             case "highlight" -> highlightLegalMoves(params);
+            case "analyze" -> analyze(params);
             default -> help();
         };
     }
@@ -125,6 +129,8 @@ public class ChessClient implements NotificationHandler {
                     SET_TEXT_COLOR_MAGENTA + " - list games\n" +
                     SET_TEXT_COLOR_BLUE + "join <ID> [WHITE|BLACK]" +
                     SET_TEXT_COLOR_MAGENTA + " - join a game\n" +
+                    SET_TEXT_COLOR_BLUE + "bot <ID> [WHITE|BLACK] [EASY|MEDIUM|HARD]" +
+                    SET_TEXT_COLOR_MAGENTA + " - add a computer opponent to a game\n" +
                     SET_TEXT_COLOR_BLUE + "observe <ID>" +
                     SET_TEXT_COLOR_MAGENTA + " - observe a game\n" +
                     SET_TEXT_COLOR_BLUE + "logout" +
@@ -134,12 +140,14 @@ public class ChessClient implements NotificationHandler {
             case GAMEPLAY ->
                     SET_TEXT_COLOR_BLUE + "redraw" +
                     SET_TEXT_COLOR_MAGENTA + " - redraw board\n" +
-                    SET_TEXT_COLOR_BLUE + "move <FROM><TO> <PROMOTION_PIECE>\n" +
+                    SET_TEXT_COLOR_BLUE + "move <FROM><TO> <PROMOTION_PIECE> | move <SAN>\n" +
                     SET_TEXT_COLOR_MAGENTA + " - make a move\n" +
                     SET_TEXT_COLOR_BLUE + "leave" +
                     SET_TEXT_COLOR_MAGENTA + " - leave game\n" +
                     SET_TEXT_COLOR_BLUE + "resign" +
                     SET_TEXT_COLOR_MAGENTA + " - resign game\n" +
+                    SET_TEXT_COLOR_BLUE + "draw" +
+                    SET_TEXT_COLOR_MAGENTA + " - claim a draw after fifty moves without a capture or pawn move\n" +
                     SET_TEXT_COLOR_BLUE + "highlight <SQUARE>" +
                     SET_TEXT_COLOR_MAGENTA + " - show legal moves\n";
             case OBSERVER ->
@@ -148,7 +156,9 @@ public class ChessClient implements NotificationHandler {
                     SET_TEXT_COLOR_BLUE + "leave" +
                     SET_TEXT_COLOR_MAGENTA + " - leave game\n" +
                     SET_TEXT_COLOR_BLUE + "highlight <SQUARE>" +
-                    SET_TEXT_COLOR_MAGENTA + " - show legal moves\n";
+                    SET_TEXT_COLOR_MAGENTA + " - show legal moves\n" +
+                    SET_TEXT_COLOR_BLUE + "analyze [SECONDS]" +
+                    SET_TEXT_COLOR_MAGENTA + " - find the best line in the position\n";
         };
     }
 
@@ -268,6 +278,37 @@ public class ChessClient implements NotificationHandler {
         throw new Exception("Expected: <game number> <WHITE|BLACK>");
     }
 
+    public String addBot(String... params) throws Exception {
+        assertLoggedIn();
+        if (params.length >= 2) {
+            int gameNumber;
+            try {
+                gameNumber = Integer.parseInt(params[0]);
+            } catch (NumberFormatException e) {
+                throw new Exception("Game ID must be a number");
+            }
+
+            if (gameNumber < 1 || gameNumber > gameIDMap.size()) {
+                throw new Exception("Invalid game number. Run 'list' to see valid games");
+            }
+            int gameID = gameIDMap.get(gameNumber - 1);
+
+            String colorInput = params[1].toUpperCase();
+            if (!colorInput.equals("WHITE") && !colorInput.equals("BLACK")) {
+                throw new Exception("Color must be WHITE or BLACK");
+            }
+            String difficulty = params.length >= 3 ? params[2].toUpperCase() : "MEDIUM";
+            if (!difficulty.equals("EASY") && !difficulty.equals("MEDIUM") && !difficulty.equals("HARD")) {
+                throw new Exception("Difficulty must be EASY, MEDIUM or HARD");
+            }
+
+            var result = server.addBot(new AddBotRequest(authToken, colorInput, gameID, difficulty));
+            return result.username() + " joined game " + gameNumber + " as " + colorInput + ".\n";
+        }
+
+        throw new Exception("Expected: <game number> <WHITE|BLACK> [EASY|MEDIUM|HARD]");
+    }
+
     public String observeGame(String... params) throws Exception {
         assertLoggedIn();
 
@@ -333,7 +374,14 @@ public class ChessClient implements NotificationHandler {
 
     public String makeMove(String[] params) throws Exception {
         if (params.length == 0 || params.length > 2) {
-            throw new Exception("Expected format: move <FROM><TO> <PROMOTION> (e.g., e2e4 or e7e8 queen)");
+            throw new Exception("Expected format: move <FROM><TO> <PROMOTION> or move <SAN> (e.g., e2e4, e7e8 queen or Nf3)");
+        }
+
+        // a single word can be UCI such as e7e8q or SAN such as Nxe5, read against the current position
+        if (params.length == 1 && currentGame != null) {
+            ChessMove move = Notation.parseMove(currentGame, params[0]);
+            ws.sendCommand(new MakeMoveCommand(authToken, currentGameID, move));
+            return "";
         }
 
         String moveString = params[0];
@@ -371,6 +419,29 @@ public class ChessClient implements NotificationHandler {
         return SET_TEXT_COLOR_BLUE + "Resigned from game " + oldGameID;
 }
 
+    public String claimDraw(String[] params) {
+        ws.sendCommand(new ClaimDrawCommand(authToken, currentGameID));
+        return "";
+    }
+
+    public String analyze(String[] params) throws Exception {
+        long seconds = 2;
+        if (params.length >= 1) {
+            try {
+                seconds = Long.parseLong(params[0]);
+            } catch (NumberFormatException e) {
+                throw new Exception("Seconds must be a number");
+            }
+            if (seconds < 1 || seconds > 10) {
+                throw new Exception("Seconds must be between 1 and 10");
+            }
+        }
+
+        // deeper lines arrive over the WebSocket while the server is still searching
+        var result = server.analyze(new AnalysisRequest(authToken, currentGameID, null, null, seconds * 1000, true));
+        return SET_TEXT_COLOR_BLUE + formatAnalysis(result);
+    }
+
     public String highlightLegalMoves(String[] params) throws Exception {
         if (params.length != 1) {
             throw new Exception("Expected format: highlight <SQUARE> (e.g., highlight e2)");
@@ -439,6 +510,11 @@ public class ChessClient implements NotificationHandler {
         printPrompt();
     }
 
+    @Override
+    public void notifyAnalysis(AnalysisMessage analysisMessage) {
+        System.out.println(SET_TEXT_COLOR_LIGHT_GREY + formatAnalysis(analysisMessage.getAnalysis()));
+    }
+
     @Override
     public void loadGame(ChessGame game) {
         this.currentGame = game;
@@ -447,6 +523,20 @@ public class ChessClient implements NotificationHandler {
         printPrompt();
     }
 
+    /**
+     * Formats an analysis as its depth, the score from white's point of view and the line of play
+     */
+    private String formatAnalysis(AnalysisResult analysis) {
+        if (analysis.bestMove() == null) {
+            return "No legal moves.";
+        }
+        int sign = analysis.fen().split(" ")[1].equals("w") ? 1 : -1;
+        String score = analysis.mateIn() != null
+                ? "#" + sign * analysis.mateIn()
+                : String.format("%+.2f", sign * analysis.score() / 100.0);
+        return "depth " + analysis.depth() + "  " + score + "  " + String.join(" ", analysis.principalVariation());
+    }
+
     private void assertLoggedIn() throws Exception {
         if (state == State.LOGGEDOUT) {
             throw new Exception("Please log in first");
@@ -60,6 +60,18 @@ public class ServerFacade {
         handleResponse(response, null);
     }
 
+    public AddBotResult addBot(AddBotRequest addBotRequest) throws Exception {
+        var request = buildRequest("POST", "/game/bot", addBotRequest, authToken);
+        var response = sendRequest(request);
+        return handleResponse(response, AddBotResult.class);
+    }
+
+    public AnalysisResult analyze(AnalysisRequest analysisRequest) throws Exception {
+        var request = buildRequest("POST", "/analysis", analysisRequest, authToken);
+        var response = sendRequest(request);
+        return handleResponse(response, AnalysisResult.class);
+    }
+
     public void clear() throws Exception {
         var request = buildRequest("DELETE", "/db", null, null);
         var response = sendRequest(request);
@@ -128,6 +140,8 @@ public class ServerFacade {
         return switch (message.toLowerCase()) {
             case "unauthorized" -> "Invalid username or password.";
             case "already taken" -> "Username or team color already taken. Please choose another.";
+            case "forbidden" -> "You cannot analyze a game you are still playing.";
+            case "too many requests" -> "The server is busy. Please try again shortly.";
             default -> message;
         };
     }
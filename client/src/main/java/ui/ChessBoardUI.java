@@ -79,7 +79,7 @@ public class ChessBoardUI {
             out.print(" " + ROW_LABELS[row] + " ");
 
             for (int col = startCol; isBlack ? col >= endCol : col <= endCol; col += colDirection) {
-                ChessPosition square = new ChessPosition(row + 1, col + 1);
+                ChessPosition square = ChessPosition.of(row + 1, col + 1);
                 boolean isDark = (row + col) % 2 == 0;
 
                 if (square.equals(startPos)) {
@@ -1,6 +1,7 @@
 package websocket;
 
 import chess.ChessGame;
+import websocket.messages.AnalysisMessage;
 import websocket.messages.ErrorMessage;
 import websocket.messages.NotificationMessage;
 
@@ -8,4 +9,5 @@ public interface NotificationHandler {
     void notifyMessage(NotificationMessage notificationMessage);
     void notifyError(ErrorMessage errorMessage);
     void loadGame(ChessGame game);
+    void notifyAnalysis(AnalysisMessage analysisMessage);
 }
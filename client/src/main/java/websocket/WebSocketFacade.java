@@ -66,6 +66,10 @@ public class WebSocketFacade extends Endpoint {
                     NotificationMessage notificationMessage = gson.fromJson(message, NotificationMessage.class);
                     handler.notifyMessage(notificationMessage);
                 }
+                case ANALYSIS -> {
+                    AnalysisMessage analysisMessage = gson.fromJson(message, AnalysisMessage.class);
+                    handler.notifyAnalysis(analysisMessage);
+                }
             }
 
         } catch (Exception e) {
@@ -167,6 +167,61 @@ public class ServerFacadeTests {
         assertThrows(Exception.class, () -> serverFacade.joinGame(joinGameRequest));
     }
 
+    @Test
+    public void addBotPositive() throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest(user.username(), user.password(), user.email());
+        serverFacade.register(registerRequest);
+        LoginRequest loginRequest = new LoginRequest(user.username(), user.password());
+        LoginResult loginResult = serverFacade.login(loginRequest);
+        serverFacade.setAuthToken(loginResult.authToken());
+
+        CreateGameRequest createGameRequest = new CreateGameRequest(loginResult.authToken(), "gameName1");
+        CreateGameResult createGameResult = serverFacade.createGame(createGameRequest);
+
+        AddBotRequest addBotRequest =
+                new AddBotRequest(loginResult.authToken(), "BLACK", createGameResult.gameID(), "EASY");
+        assertEquals("Computer (Easy)", serverFacade.addBot(addBotRequest).username());
+    }
+
+    @Test
+    public void addBotNegative() throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest(user.username(), user.password(), user.email());
+        serverFacade.register(registerRequest);
+        LoginRequest loginRequest = new LoginRequest(user.username(), user.password());
+        LoginResult loginResult = serverFacade.login(loginRequest);
+        serverFacade.setAuthToken(loginResult.authToken());
+
+        CreateGameRequest createGameRequest = new CreateGameRequest(loginResult.authToken(), "gameName1");
+        CreateGameResult createGameResult = serverFacade.createGame(createGameRequest);
+
+        AddBotRequest addBotRequest =
+                new AddBotRequest(loginResult.authToken(), "BLACK", createGameResult.gameID(), "GRANDMASTER");
+        assertThrows(Exception.class, () -> serverFacade.addBot(addBotRequest));
+    }
+
+    @Test
+    public void analyzePositive() throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest(user.username(), user.password(), user.email());
+        RegisterResult registerResult = serverFacade.register(registerRequest);
+        serverFacade.setAuthToken(registerResult.authToken());
+
+        AnalysisRequest analysisRequest = new AnalysisRequest(registerResult.authToken(), null,
+                "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", 3, null, false);
+        AnalysisResult analysisResult = serverFacade.analyze(analysisRequest);
+        assertEquals("Ra8#", analysisResult.bestMove());
+        assertEquals(1, analysisResult.mateIn());
+    }
+
+    @Test
+    public void analyzeNegative() throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest(user.username(), user.password(), user.email());
+        RegisterResult registerResult = serverFacade.register(registerRequest);
+        serverFacade.setAuthToken(registerResult.authToken());
+
+        AnalysisRequest analysisRequest = new AnalysisRequest(registerResult.authToken(), null,
+                "not a position", 3, null, false);
+        assertThrows(Exception.class, () -> serverFacade.analyze(analysisRequest));
+    }
 
     @Test
     public void clear() throws Exception {
@@ -3,11 +3,13 @@ package dataaccess;
 import model.data.GameData;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface GameDAO {
     int createGame(GameData game) throws DataAccessException; // returns gameID
     GameData getGame(int gameID) throws DataAccessException;
     List<GameData> listGames() throws DataAccessException;
     void updateGame(GameData game) throws DataAccessException;
+    void forEachGame(Consumer<GameData> action) throws DataAccessException; // streams games one at a time
     void clear() throws DataAccessException;
 }
@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class MemoryGameDAO implements GameDAO {
     private final Map<Integer, GameData> games = new HashMap<>();
@@ -33,6 +34,11 @@ public class MemoryGameDAO implements GameDAO {
         return new ArrayList<>(games.values());
     }
 
+    @Override
+    public void forEachGame(Consumer<GameData> action) throws DataAccessException {
+        games.values().forEach(action);
+    }
+
     @Override
     public void updateGame(GameData game) throws DataAccessException {
         games.put(game.gameID(), game);
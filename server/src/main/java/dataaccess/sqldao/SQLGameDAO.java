@@ -12,6 +12,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class SQLGameDAO extends BaseSQLDAO implements GameDAO {
     public SQLGameDAO() throws DataAccessException {
@@ -87,6 +88,31 @@ public class SQLGameDAO extends BaseSQLDAO implements GameDAO {
         return result;
     }
 
+    @Override
+    public void forEachGame(Consumer<GameData> action) throws DataAccessException {
+        Gson gson = new Gson();
+        try (Connection conn = DatabaseManager.getConnection()) {
+            var statement = "SELECT gameID, gameName, whiteUsername, blackUsername, json FROM games ORDER BY gameID";
+            try (PreparedStatement ps = conn.prepareStatement(statement,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                // Connector/J streams rows one at a time instead of loading the whole table
+                ps.setFetchSize(Integer.MIN_VALUE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int gameID = rs.getInt("gameID");
+                        String gameName = rs.getString("gameName");
+                        String white = rs.getString("whiteUsername");
+                        String black = rs.getString("blackUsername");
+                        ChessGame game = gson.fromJson(rs.getString("json"), ChessGame.class);
+                        action.accept(new GameData(gameID, white, black, gameName, game));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Unable to read data: " + e.getMessage());
+        }
+    }
+
     @Override
     public void updateGame(GameData game) throws DataAccessException {
         var statement = "UPDATE games set gameName=?, whiteUsername=?, blackUsername=?, json=? WHERE gameID=?";
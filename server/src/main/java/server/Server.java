@@ -21,8 +21,10 @@ public class Server {
             UserService userService = new UserService(userDAO, authDAO);
             GameService gameService = new GameService(gameDAO, authDAO);
             ClearService clearService = new ClearService(gameDAO, userDAO, authDAO);
+            BotService botService = new BotService(gameService, userDAO, authDAO);
+            AnalysisService analysisService = new AnalysisService(gameService, authDAO);
 
-            WebSocketHandler webSocketHandler = new WebSocketHandler(gameService);
+            WebSocketHandler webSocketHandler = new WebSocketHandler(gameService, botService);
             webSocketHandler.register(javalin);
 
 
@@ -41,9 +43,18 @@ public class Server {
             JoinGameHandler joinGameHandler = new JoinGameHandler(gameService);
             javalin.put("/game", joinGameHandler);
 
+            AddBotHandler addBotHandler = new AddBotHandler(botService);
+            javalin.post("/game/bot", addBotHandler);
+
             ListGamesHandler listGamesHandler = new ListGamesHandler(gameService);
             javalin.get("/game", listGamesHandler);
 
+            ExportGamesHandler exportGamesHandler = new ExportGamesHandler(gameService);
+            javalin.get("/game/pgn", exportGamesHandler);
+
+            AnalysisHandler analysisHandler = new AnalysisHandler(analysisService, webSocketHandler::sendAnalysis);
+            javalin.post("/analysis", analysisHandler);
+
             ClearHandler clearHandler = new ClearHandler(clearService);
             javalin.delete("/db", clearHandler);
         } catch (DataAccessException e) {
@@ -0,0 +1,27 @@
+package server.handlers;
+
+import model.request.AddBotRequest;
+import model.result.AddBotResult;
+import service.BotService;
+import io.javalin.http.Context;
+
+public class AddBotHandler extends BaseHandler<AddBotRequest, AddBotResult> {
+
+    private final BotService botService;
+
+    public AddBotHandler(BotService botService) {
+        this.botService = botService;
+    }
+
+    @Override
+    protected AddBotRequest parseRequest(Context ctx) {
+        String authToken = ctx.header("Authorization");
+        AddBotRequest body = gson.fromJson(ctx.body(), AddBotRequest.class);
+        return new AddBotRequest(authToken, body.playerColor(), body.gameID(), body.difficulty());
+    }
+
+    @Override
+    protected AddBotResult execute(AddBotRequest request) throws Exception {
+        return botService.addBot(request);
+    }
+}
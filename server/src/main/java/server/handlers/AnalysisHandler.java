@@ -0,0 +1,59 @@
+package server.handlers;
+
+import io.javalin.http.Context;
+import model.request.AnalysisRequest;
+import model.result.AnalysisResult;
+import org.jetbrains.annotations.NotNull;
+import service.AnalysisService;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+public class AnalysisHandler extends BaseHandler<AnalysisRequest, CompletableFuture<AnalysisResult>> {
+
+    private final AnalysisService analysisService;
+    private final BiConsumer<String, AnalysisResult> progress;
+
+    /**
+     * @param progress sends a streaming request's progress to the user, such as over their WebSocket
+     */
+    public AnalysisHandler(AnalysisService analysisService, BiConsumer<String, AnalysisResult> progress) {
+        this.analysisService = analysisService;
+        this.progress = progress;
+    }
+
+    /**
+     * Answers once the search finishes, without holding a request thread while it runs
+     */
+    @Override
+    public void handle(@NotNull Context ctx) {
+        CompletableFuture<AnalysisResult> job;
+        try {
+            job = execute(parseRequest(ctx));
+        } catch (Exception e) {
+            handleException(e, ctx);
+            return;
+        }
+        ctx.future(() -> job.handle((result, error) -> {
+            if (error != null) {
+                handleException(new Exception(error), ctx);
+            } else {
+                ctx.result(gson.toJson(result));
+            }
+            return null;
+        }));
+    }
+
+    @Override
+    protected AnalysisRequest parseRequest(Context ctx) {
+        String authToken = ctx.header("Authorization");
+        AnalysisRequest body = gson.fromJson(ctx.body(), AnalysisRequest.class);
+        return new AnalysisRequest(authToken, body.gameID(), body.fen(), body.depth(), body.timeMillis(),
+                body.stream());
+    }
+
+    @Override
+    protected CompletableFuture<AnalysisResult> execute(AnalysisRequest request) throws Exception {
+        return analysisService.analyze(request, progress);
+    }
+}
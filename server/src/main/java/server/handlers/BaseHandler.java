@@ -6,6 +6,8 @@ import service.exceptions.AlreadyTakenException;
 import io.javalin.http.Context;
 import io.javalin.http.Handler;
 import service.exceptions.BadRequestException;
+import service.exceptions.ForbiddenException;
+import service.exceptions.TooManyRequestsException;
 import service.exceptions.UnauthorizedException;
 
 public abstract class BaseHandler<T, R> implements Handler {
@@ -26,7 +28,7 @@ public abstract class BaseHandler<T, R> implements Handler {
 
         protected abstract R execute(T request) throws Exception;
 
-        private void handleException(Exception ex, Context ctx) {
+        protected void handleException(Exception ex, Context ctx) {
             if (ex instanceof BadRequestException) {
                 ctx.status(400);
                 ctx.result(gson.toJson(new ErrorMessage("Error: bad request")));
@@ -36,6 +38,12 @@ public abstract class BaseHandler<T, R> implements Handler {
             } else if (ex instanceof AlreadyTakenException) {
                 ctx.status(403);
                 ctx.result(gson.toJson(new ErrorMessage("Error: already taken")));
+            } else if (ex instanceof ForbiddenException) {
+                ctx.status(403);
+                ctx.result(gson.toJson(new ErrorMessage("Error: forbidden")));
+            } else if (ex instanceof TooManyRequestsException) {
+                ctx.status(429);
+                ctx.result(gson.toJson(new ErrorMessage("Error: too many requests")));
             } else {
                 ctx.status(500);
                 ctx.result(gson.toJson(new ErrorMessage("Error: internal server error")));
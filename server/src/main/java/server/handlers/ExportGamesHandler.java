@@ -0,0 +1,44 @@
+package server.handlers;
+
+import com.google.gson.Gson;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import org.jetbrains.annotations.NotNull;
+import service.GameService;
+import service.exceptions.UnauthorizedException;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams every finished game as a PGN file. The response is written as the games
+ * are read, so it does not go through {@link BaseHandler}'s JSON result.
+ */
+public class ExportGamesHandler implements Handler {
+    private final Gson gson = new Gson();
+    private final GameService gameService;
+
+    public ExportGamesHandler(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    @Override
+    public void handle(@NotNull Context ctx) {
+        String authToken = ctx.header("Authorization");
+        try {
+            ctx.contentType("application/x-chess-pgn");
+            Writer out = new BufferedWriter(new OutputStreamWriter(ctx.outputStream(), StandardCharsets.UTF_8));
+            gameService.exportFinishedGames(authToken, out);
+        } catch (UnauthorizedException e) {
+            ctx.status(401);
+            ctx.contentType("application/json");
+            ctx.result(gson.toJson(new ErrorMessage("Error: unauthorized")));
+        } catch (Exception e) {
+            ctx.status(500);
+            ctx.contentType("application/json");
+            ctx.result(gson.toJson(new ErrorMessage("Error: internal server error")));
+        }
+    }
+}
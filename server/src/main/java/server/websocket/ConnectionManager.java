@@ -1,22 +1,20 @@
 package server.websocket;
 
 import io.javalin.websocket.WsContext;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ConnectionManager {
 
-    private final Map<WsContext, String> sessionToUser = new HashMap<>();
-    private final Map<String, Set<WsContext>> userToSessions = new HashMap<>();
-    private final Map<Integer, Set<WsContext>> gameToSessions = new HashMap<>();
-    private final Map<WsContext, Integer> sessionToGame = new HashMap<>();
+    private final Map<WsContext, String> sessionToUser = new ConcurrentHashMap<>();
+    private final Map<String, Set<WsContext>> userToSessions = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<WsContext>> gameToSessions = new ConcurrentHashMap<>();
+    private final Map<WsContext, Integer> sessionToGame = new ConcurrentHashMap<>();
 
     public void addConnection(WsContext ctx, String username) {
         sessionToUser.put(ctx, username);
-        userToSessions.computeIfAbsent(username, k -> new HashSet<>()).add(ctx);
+        userToSessions.computeIfAbsent(username, k -> ConcurrentHashMap.newKeySet()).add(ctx);
     }
 
     public void removeConnection(WsContext ctx) {
@@ -40,7 +38,7 @@ public class ConnectionManager {
 
     public void addToGame(WsContext ctx, Integer gameID) {
         sessionToGame.put(ctx, gameID);
-        gameToSessions.computeIfAbsent(gameID, k -> new HashSet<>()).add(ctx);
+        gameToSessions.computeIfAbsent(gameID, k -> ConcurrentHashMap.newKeySet()).add(ctx);
     }
 
     public Set<WsContext> getGameSessions(Integer gameID) {
@@ -51,6 +49,12 @@ public class ConnectionManager {
         ctx.send(message);
     }
 
+    public void sendToUser(String username, String message) {
+        for (WsContext ctx : userToSessions.getOrDefault(username, Set.of())) {
+            sendToSession(ctx, message);
+        }
+    }
+
     public void broadcastToGame(int gameId, String message) {
         for (WsContext ctx : getGameSessions(gameId)) {
             sendToSession(ctx, message);
@@ -2,19 +2,20 @@ package server.websocket;
 
 
 import chess.ChessGame;
-import chess.ChessPosition;
+import chess.Notation;
 import com.google.gson.Gson;
 import io.javalin.Javalin;
 import io.javalin.websocket.WsContext;
 import model.data.GameData;
+import model.result.AnalysisResult;
 
+import service.BotService;
 import service.GameService;
 import websocket.commands.*;
 import websocket.messages.*;
 
 import java.time.Duration;
 
-import static chess.ChessGame.TeamColor.BLACK;
 import static chess.ChessGame.TeamColor.WHITE;
 
 public class WebSocketHandler {
@@ -22,9 +23,11 @@ public class WebSocketHandler {
     private final Gson gson = new Gson();
     private final ConnectionManager connectionManager = new ConnectionManager();
     private final GameService gameService;
+    private final BotService botService;
 
-    public WebSocketHandler(GameService gameService) {
+    public WebSocketHandler(GameService gameService, BotService botService) {
         this.gameService = gameService;
+        this.botService = botService;
     }
 
     public void register(Javalin app) {
@@ -54,6 +57,10 @@ public class WebSocketHandler {
                     ResignCommand resignCommand = gson.fromJson(message, ResignCommand.class);
                     resign(ctx, resignCommand);
                 }
+                case CLAIM_DRAW -> {
+                    ClaimDrawCommand claimCommand = gson.fromJson(message, ClaimDrawCommand.class);
+                    claimDraw(ctx, claimCommand);
+                }
                 default -> {
                     ctx.send(gson.toJson(new ErrorMessage("Error: Unknown command")));
                 }
@@ -88,6 +95,7 @@ public class WebSocketHandler {
                     ctx,
                     gson.toJson(new NotificationMessage(joinMessage))
             );
+            botService.requestMove(gameData, this::botMoved);
         } catch (Exception e) {
             ctx.send(gson.toJson(new ErrorMessage("Error: " + e.getMessage())));        }
     }
@@ -101,42 +109,69 @@ public class WebSocketHandler {
                     command.getChessMove()
             );
 
-            String moveNotification = username + " played " + formatMove(command);
-            connectionManager.broadcastToGameExceptSender(
-                    command.getGameID(),
-                    ctx,
-                    gson.toJson(new NotificationMessage(moveNotification))
-            );
+            broadcastMove(ctx, username, updatedGame);
+        } catch (Exception e) {
+            ctx.send(gson.toJson(new ErrorMessage("Error: " + e.getMessage())));        }
+    }
 
-            connectionManager.broadcastToGame(
-                    command.getGameID(),
-                    gson.toJson(new LoadGameMessage(updatedGame.game()))
-            );
+    /**
+     * Sends progress on an analysis to every WebSocket session of the user who asked for it
+     */
+    public void sendAnalysis(String username, AnalysisResult analysis) {
+        connectionManager.sendToUser(username, gson.toJson(new AnalysisMessage(analysis)));
+    }
 
-            ChessGame gameState = updatedGame.game();
-            if (gameState.isGameOver()) {
-                if (gameState.isInCheckmate(WHITE)) {
-                    String msg = "Checkmate! " +  updatedGame.blackUsername() + " wins!";
-                    connectionManager.broadcastToGame(command.getGameID(), gson.toJson(new NotificationMessage(msg)));
-                } else if (gameState.isInCheckmate(BLACK)) {
-                    String msg = "Checkmate! " +  updatedGame.whiteUsername() + " wins!";
-                    connectionManager.broadcastToGame(command.getGameID(), gson.toJson(new NotificationMessage(msg)));
-                }
-                else {
-                    String msg = "Stalemate! The game ends in a draw!";
-                    connectionManager.broadcastToGame(command.getGameID(), gson.toJson(new NotificationMessage(msg)));
-                }
-            }
-            if (gameState.isInCheck(WHITE) && !gameState.isGameOver()) {
-                String msg = updatedGame.whiteUsername() + " is in Check!";
-                connectionManager.broadcastToGame(command.getGameID(), gson.toJson(new NotificationMessage(msg)));
-            } else if (gameState.isInCheck(BLACK) && !gameState.isGameOver()) {
-                String msg = updatedGame.blackUsername() + " is in Check!";
-                connectionManager.broadcastToGame(command.getGameID(), gson.toJson(new NotificationMessage(msg)));
-            }
+    private void botMoved(String username, GameData updatedGame) {
+        broadcastMove(null, username, updatedGame);
+    }
 
-        } catch (Exception e) {
-            ctx.send(gson.toJson(new ErrorMessage("Error: " + e.getMessage())));        }
+    /**
+     * Tells everyone in the game about a move, sending the new board to all of them,
+     * then lets a computer opponent reply if it is now its turn
+     *
+     * @param sender the session the move came from, which is not told about it, or null for a bot's move
+     */
+    private void broadcastMove(WsContext sender, String username, GameData updatedGame) {
+        int gameID = updatedGame.gameID();
+        String moveNotification = username + " played " + formatMove(updatedGame);
+        connectionManager.broadcastToGameExceptSender(
+                gameID,
+                sender,
+                gson.toJson(new NotificationMessage(moveNotification))
+        );
+
+        connectionManager.broadcastToGame(
+                gameID,
+                gson.toJson(new LoadGameMessage(updatedGame.game()))
+        );
+
+        ChessGame gameState = updatedGame.game();
+        if (gameState.isGameOver()) {
+            String msg = gameOverMessage(gameState, updatedGame);
+            connectionManager.broadcastToGame(gameID, gson.toJson(new NotificationMessage(msg)));
+        }
+        // only the team to move can be in check after a legal move
+        ChessGame.TeamColor toMove = gameState.getTeamTurn();
+        if (!gameState.isGameOver() && gameState.isInCheck(toMove)) {
+            String checked = (toMove == WHITE) ? updatedGame.whiteUsername() : updatedGame.blackUsername();
+            String msg = checked + " is in Check!";
+            connectionManager.broadcastToGame(gameID, gson.toJson(new NotificationMessage(msg)));
+        }
+
+        botService.requestMove(updatedGame, this::botMoved);
+    }
+
+    private String gameOverMessage(ChessGame gameState, GameData gameData) {
+        String winner = (gameState.getWinner() == WHITE) ? gameData.whiteUsername() : gameData.blackUsername();
+        return switch (gameState.getTermination()) {
+            case CHECKMATE -> "Checkmate! " + winner + " wins!";
+            case RESIGNATION -> winner + " wins by resignation!";
+            case STALEMATE -> "Stalemate! The game ends in a draw!";
+            case THREEFOLD_REPETITION -> "Threefold repetition! The game ends in a draw!";
+            case FIFTY_MOVE_RULE -> "Fifty moves without a capture or pawn move! The game ends in a draw!";
+            case SEVENTY_FIVE_MOVE_RULE -> "Seventy-five moves without a capture or pawn move! The game ends in a draw!";
+            case INSUFFICIENT_MATERIAL -> "Insufficient material! The game ends in a draw!";
+        };
     }
 
     private void leave(WsContext ctx, LeaveCommand command) {
@@ -148,7 +183,12 @@ public class WebSocketHandler {
                 return;
             }
 
+            GameData gameData = gameService.getGameData(authToken, command.getGameID());
             gameService.leave(authToken, command.getGameID());
+            if (username.equals(gameData.whiteUsername()) || username.equals(gameData.blackUsername())) {
+                // a bot does not go on thinking about a move against a player who has left
+                botService.cancel(command.getGameID());
+            }
             connectionManager.removeConnection(ctx);
             connectionManager.broadcastToGameExceptSender(
                     command.getGameID(),
@@ -171,6 +211,7 @@ public class WebSocketHandler {
             }
 
             GameData updatedGame = gameService.resign(authToken, command.getGameID());
+            botService.cancel(command.getGameID());
             String winner = username.equals(updatedGame.whiteUsername()) ?
                     updatedGame.blackUsername() : updatedGame.whiteUsername();
             String resignMessage = username + " resigned. " + winner + " wins!";
@@ -183,13 +224,29 @@ public class WebSocketHandler {
             ctx.send(gson.toJson(new ErrorMessage("Error: " + e.getMessage())));        }
     }
 
-    private String formatMove(MakeMoveCommand command) {
-        ChessPosition startPos = command.getChessMove().getStartPosition();
-        ChessPosition endPos = command.getChessMove().getEndPosition();
+    private void claimDraw(WsContext ctx, ClaimDrawCommand command) {
+        try {
+            String authToken = command.getAuthToken();
+            String username = gameService.getUsername(command.getAuthToken());
+
+            if (authToken == null) {
+                ctx.send(gson.toJson(new ErrorMessage("Unauthorized")));
+                return;
+            }
+
+            GameData updatedGame = gameService.claimDraw(authToken, command.getGameID());
+            botService.cancel(command.getGameID());
+            String claimMessage = username + " claimed a draw. " + gameOverMessage(updatedGame.game(), updatedGame);
 
-        char startCol = (char) ('a' + startPos.getColumn() - 1);
-        char endCol = (char) ('a' + endPos.getColumn() - 1);
+            connectionManager.broadcastToGame(
+                    command.getGameID(),
+                    gson.toJson(new NotificationMessage(claimMessage))
+            );
+        } catch (Exception e) {
+            ctx.send(gson.toJson(new ErrorMessage("Error: " + e.getMessage())));        }
+    }
 
-        return "" + startCol + startPos.getRow() + endCol + endPos.getRow();
+    private String formatMove(GameData gameData) {
+        return Notation.lastMoveToSan(gameData.game());
     }
 }
\ No newline at end of file
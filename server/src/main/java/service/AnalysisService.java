@@ -0,0 +1,192 @@
+package service;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.Notation;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import dataaccess.AuthDAO;
+import dataaccess.DataAccessException;
+import model.data.AuthData;
+import model.data.GameData;
+import model.request.AnalysisRequest;
+import model.result.AnalysisResult;
+import service.exceptions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Analyzes positions on request: finds the best move and line of play in a game
+ * or a FEN position within a depth and time budget.
+ * <p>
+ * Searches are CPU-bound, so they run on a fixed pool of one thread per processor
+ * with a bounded queue in front of it, and the caller gets a future rather than
+ * waiting for the search. A request that finds the queue full, or whose user
+ * already has {@link #MAX_JOBS_PER_USER} analyses queued or running, is turned
+ * away with a {@link TooManyRequestsException} instead of waiting, so one user
+ * cannot starve the others. A player cannot analyze their own game until it is
+ * over, which would let them consult the engine against their opponent. Each
+ * thread reuses one {@link Search}, and all of them share a transposition table,
+ * so analyzing the same game again as it goes on is cheaper.
+ */
+public class AnalysisService {
+    public static final int MAX_JOBS_PER_USER = 2;
+    public static final long MAX_TIME_MILLIS = 10_000;
+    public static final long DEFAULT_TIME_MILLIS = 2_000;
+
+    private static final int QUEUE_CAPACITY = 16;
+    private static final int TABLE_MEGABYTES = 32;
+    /**
+     * Analyses overlap, so the table ages its entries by time rather than by search
+     */
+    private static final long GENERATION_MILLIS = MAX_TIME_MILLIS;
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+    private final GameService gameService;
+    private final AuthDAO authDAO;
+    private final TranspositionTable table = new TranspositionTable(TABLE_MEGABYTES, GENERATION_MILLIS);
+    private final ThreadLocal<Search> searches = ThreadLocal.withInitial(() -> new Search(table));
+    private final ExecutorService executor;
+    /**
+     * The number of analyses each user has queued or running
+     */
+    private final Map<String, Integer> jobs = new ConcurrentHashMap<>();
+
+    public AnalysisService(GameService gameService, AuthDAO authDAO) {
+        this.gameService = gameService;
+        this.authDAO = authDAO;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(PROCESSORS, PROCESSORS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), task -> {
+            Thread thread = new Thread(task, "analysis-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Checks an analysis request and queues it, without waiting for the search
+     *
+     * @param request the position, which is either a game ID or a FEN, and the budget
+     * @param progress told each deeper result as it is found, with the requesting
+     *                 user's name, if the request asks for streaming
+     * @return the deepest result found within the budget, once the search finishes
+     * @throws ForbiddenException if the user asks about a game they are playing that is not over
+     */
+    public CompletableFuture<AnalysisResult> analyze(AnalysisRequest request,
+                                                     BiConsumer<String, AnalysisResult> progress)
+            throws BadRequestException, UnauthorizedException, ForbiddenException, TooManyRequestsException,
+            DataAccessException {
+
+        if (request.authToken() == null) {
+            throw new UnauthorizedException("Error: unauthorized");
+        }
+        AuthData auth = authDAO.getAuth(request.authToken());
+        if (auth == null) {
+            throw new UnauthorizedException("Error: unauthorized");
+        }
+        if ((request.gameID() == null) == (request.fen() == null)) {
+            throw new BadRequestException("Error: Bad request");
+        }
+
+        ChessGame position;
+        if (request.gameID() != null) {
+            GameData gameData = gameService.getGameData(request.authToken(), request.gameID());
+            boolean player = auth.username().equals(gameData.whiteUsername())
+                    || auth.username().equals(gameData.blackUsername());
+            if (player && !gameData.game().isGameOver()) {
+                throw new ForbiddenException("Error: forbidden");
+            }
+            // the game goes on while it is analyzed, so the search gets its own copy
+            position = new ChessGame(gameData.game());
+        } else {
+            try {
+                position = ChessGame.fromFen(request.fen());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Error: Bad request");
+            }
+        }
+        SearchLimits limits = limits(request);
+        boolean stream = Boolean.TRUE.equals(request.stream());
+
+        String username = auth.username();
+        if (jobs.merge(username, 1, Integer::sum) > MAX_JOBS_PER_USER) {
+            finished(username);
+            throw new TooManyRequestsException("Error: too many requests");
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    SearchResult result = searches.get().search(position, limits, iteration -> {
+                        if (stream) {
+                            progress.accept(username, toResult(position, iteration));
+                        }
+                    });
+                    return toResult(position, result);
+                } finally {
+                    finished(username);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            finished(username);
+            throw new TooManyRequestsException("Error: too many requests");
+        }
+    }
+
+    /**
+     * Builds the search budget, searching for the default time if the request sets no
+     * limit, and never for longer than the most time allowed
+     */
+    private static SearchLimits limits(AnalysisRequest request) throws BadRequestException {
+        Integer depth = request.depth();
+        Long timeMillis = request.timeMillis();
+        if (depth != null && (depth < 1 || depth > Search.MAX_PLY)) {
+            throw new BadRequestException("Error: Bad request");
+        }
+        if (timeMillis != null && (timeMillis < 1 || timeMillis > MAX_TIME_MILLIS)) {
+            throw new BadRequestException("Error: Bad request");
+        }
+        if (timeMillis == null) {
+            timeMillis = depth == null ? DEFAULT_TIME_MILLIS : MAX_TIME_MILLIS;
+        }
+        return new SearchLimits(depth == null ? Search.MAX_PLY : depth, timeMillis, 0);
+    }
+
+    private void finished(String username) {
+        jobs.computeIfPresent(username, (name, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Describes a search result with its moves in SAN, played out from the position
+     */
+    private static AnalysisResult toResult(ChessGame position, SearchResult result) {
+        ChessGame line = new ChessGame(position);
+        List<String> moves = new ArrayList<>();
+        try {
+            for (ChessMove move : result.principalVariation()) {
+                moves.add(Notation.toSan(line, move));
+                line.doMove(line.findLegalMove(move));
+            }
+        } catch (InvalidMoveException e) {
+            // the line comes from the search, so every move in it is legal
+            throw new IllegalStateException(e);
+        }
+        return new AnalysisResult(
+                position.toFen(),
+                moves.isEmpty() ? null : moves.getFirst(),
+                result.score(),
+                result.isMate() ? result.mateIn() : null,
+                result.depth(),
+                result.nodes(),
+                moves
+        );
+    }
+}
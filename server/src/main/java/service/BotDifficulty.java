@@ -0,0 +1,60 @@
+package service;
+
+import chess.engine.SearchLimits;
+
+/**
+ * The strengths a computer opponent can play at. Each plays as its own synthetic
+ * user, so the opponent's name shows how strong it is, and searches on up to its
+ * own number of threads.
+ */
+public enum BotDifficulty {
+    EASY("Computer (Easy)", new SearchLimits(2, 250, 0), 1),
+    MEDIUM("Computer (Medium)", new SearchLimits(4, 1000, 0), 2),
+    HARD("Computer (Hard)", SearchLimits.time(3000), 4);
+
+    /**
+     * The email of every bot's user, which marks the account as a bot's own
+     */
+    static final String EMAIL = "";
+
+    private final String username;
+    private final SearchLimits limits;
+    private final int threads;
+
+    BotDifficulty(String username, SearchLimits limits, int threads) {
+        this.username = username;
+        this.limits = limits;
+        this.threads = threads;
+    }
+
+    public String username() {
+        return username;
+    }
+
+    public SearchLimits limits() {
+        return limits;
+    }
+
+    /**
+     * @return the most threads to search on, which the server caps at its number of processors
+     */
+    public int threads() {
+        return threads;
+    }
+
+    /**
+     * Finds the bot a username belongs to. The names are reserved, so nobody can
+     * register as one and have the bot play their games.
+     *
+     * @param username any username
+     * @return the difficulty that plays as that user, or null if it is not a computer opponent
+     */
+    public static BotDifficulty forUsername(String username) {
+        for (BotDifficulty difficulty : values()) {
+            if (difficulty.username.equals(username)) {
+                return difficulty;
+            }
+        }
+        return null;
+    }
+}
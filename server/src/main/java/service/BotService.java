@@ -0,0 +1,188 @@
+package service;
+
+import chess.ChessGame;
+import chess.engine.ParallelSearch;
+import chess.engine.Search;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import dataaccess.AuthDAO;
+import dataaccess.DataAccessException;
+import dataaccess.UserDAO;
+import model.data.AuthData;
+import model.data.GameData;
+import model.data.UserData;
+import model.request.AddBotRequest;
+import model.request.JoinGameRequest;
+import model.result.AddBotResult;
+import service.exceptions.*;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Plays computer opponents. A bot is a synthetic user that joins games through
+ * {@link GameService#joinGame} and moves through {@link GameService#makeMove} like
+ * any player, with its moves chosen by a {@link Search} on a shared worker pool so
+ * no request thread waits for one. Every search shares one transposition table.
+ * <p>
+ * Stronger bots search with a {@link ParallelSearch}, whose helper threads come from
+ * a separate pool that grows as needed, so a worker never waits for a helper that
+ * cannot be scheduled. A search still running when a player resigns or leaves can
+ * be {@linkplain #cancel cancelled}, and then makes no move.
+ */
+public class BotService {
+    /**
+     * One table serves every bot game, so memory does not grow with the number of games
+     */
+    private static final int TABLE_MEGABYTES = 64;
+    /**
+     * The games' searches overlap, so the table ages its entries by time rather than by search
+     */
+    private static final long GENERATION_MILLIS = 5_000;
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+    private final TranspositionTable table = new TranspositionTable(TABLE_MEGABYTES, GENERATION_MILLIS);
+    private final GameService gameService;
+    private final UserDAO userDAO;
+    private final AuthDAO authDAO;
+    private final ExecutorService executor;
+    private final ExecutorService helperExecutor;
+    private final Map<BotDifficulty, String> authTokens = new ConcurrentHashMap<>();
+    /**
+     * The search running in each game a bot is thinking in
+     */
+    private final Map<Integer, ParallelSearch> thinking = new ConcurrentHashMap<>();
+
+    public BotService(GameService gameService, UserDAO userDAO, AuthDAO authDAO) {
+        this.gameService = gameService;
+        this.userDAO = userDAO;
+        this.authDAO = authDAO;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(PROCESSORS, task -> {
+            Thread thread = new Thread(task, "bot-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger helpers = new AtomicInteger();
+        this.helperExecutor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "bot-helper-" + helpers.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public AddBotResult addBot(AddBotRequest request)
+            throws BadRequestException, UnauthorizedException, AlreadyTakenException, DataAccessException {
+
+        if (request.gameID() == null || request.playerColor() == null || request.authToken() == null) {
+            throw new BadRequestException("Error: Bad request");
+        }
+
+        AuthData auth = authDAO.getAuth(request.authToken());
+        if (auth == null) {
+            throw new UnauthorizedException("Error: unauthorized");
+        }
+
+        BotDifficulty difficulty;
+        try {
+            difficulty = request.difficulty() == null
+                    ? BotDifficulty.MEDIUM : BotDifficulty.valueOf(request.difficulty().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Error: Bad request");
+        }
+
+        gameService.joinGame(new JoinGameRequest(authToken(difficulty), request.playerColor(), request.gameID()));
+        return new AddBotResult(difficulty.username());
+    }
+
+    /**
+     * Starts choosing a move if a computer opponent is to move in the game. The
+     * move is made in the background, then passed to the listener with the name of
+     * the bot that made it.
+     *
+     * @param gameData the game as it now stands
+     * @param listener told about the move once it has been made
+     * @return true if a bot has started thinking
+     */
+    public boolean requestMove(GameData gameData, BiConsumer<String, GameData> listener) {
+        ChessGame game = gameData.game();
+        if (game == null || game.isGameOver()) {
+            return false;
+        }
+        String username = game.getTeamTurn() == ChessGame.TeamColor.WHITE
+                ? gameData.whiteUsername() : gameData.blackUsername();
+        BotDifficulty difficulty = BotDifficulty.forUsername(username);
+        if (difficulty == null) {
+            return false;
+        }
+        ParallelSearch search = new ParallelSearch(table, Math.min(difficulty.threads(), PROCESSORS), helperExecutor);
+        if (thinking.putIfAbsent(gameData.gameID(), search) != null) {
+            return false;
+        }
+
+        executor.execute(() -> {
+            GameData updated = null;
+            try {
+                SearchResult result = search.search(game, difficulty.limits());
+                // a cancelled search is no longer in the map, and its move is not wanted
+                if (result.bestMove() != null && thinking.get(gameData.gameID()) == search) {
+                    updated = gameService.makeMove(authToken(difficulty), gameData.gameID(), result.bestMove());
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            // cleared before the listener runs, so it can ask the next bot to move
+            thinking.remove(gameData.gameID(), search);
+            if (updated != null) {
+                listener.accept(username, updated);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Stops a bot thinking in a game, so it makes no move there
+     *
+     * @param gameID the game to stop thinking in
+     * @return true if a bot was thinking in the game
+     */
+    public boolean cancel(int gameID) {
+        ParallelSearch search = thinking.remove(gameID);
+        if (search == null) {
+            return false;
+        }
+        search.stop();
+        return true;
+    }
+
+    /**
+     * Gets a session for a bot's user, creating the user the first time and again
+     * after the database has been cleared. An account under the bot's name that is
+     * not the bot's own, left from before the names were reserved, is never signed in.
+     */
+    private String authToken(BotDifficulty difficulty) throws DataAccessException {
+        String token = authTokens.get(difficulty);
+        if (token != null && authDAO.getAuth(token) != null) {
+            return token;
+        }
+        synchronized (authTokens) {
+            UserData user = userDAO.getUser(difficulty.username());
+            if (user == null) {
+                // nobody can log in as a bot, since nobody knows its password
+                userDAO.createUser(new UserData(difficulty.username(), UUID.randomUUID().toString(),
+                        BotDifficulty.EMAIL));
+            } else if (!BotDifficulty.EMAIL.equals(user.email())) {
+                throw new DataAccessException("Error: " + difficulty.username() + " belongs to another user");
+            }
+            token = UUID.randomUUID().toString();
+            authDAO.createAuth(new AuthData(token, difficulty.username()));
+            authTokens.put(difficulty, token);
+            return token;
+        }
+    }
+}
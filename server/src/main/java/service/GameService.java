@@ -4,6 +4,7 @@ import chess.ChessGame;
 import chess.ChessMove;
 import chess.ChessPiece;
 import chess.InvalidMoveException;
+import chess.pgn.PgnWriter;
 import dataaccess.*;
 import model.data.AuthData;
 import model.data.GameData;
@@ -11,6 +12,12 @@ import model.request.*;
 import model.result.*;
 import service.exceptions.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class GameService {
     private final GameDAO gameDAO;
     private final AuthDAO authDAO;
@@ -203,7 +210,7 @@ public class GameService {
             throw new Exception("Game already over.");
         }
 
-        game.setGameOver(true);
+        game.resign(username.equals(gameData.whiteUsername()) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK);
 
         gameDAO.updateGame(new GameData(
                 gameData.gameID(),
@@ -216,6 +223,91 @@ public class GameService {
         return gameData;
     }
 
+    /**
+     * Ends a game as a draw under the fifty-move rule, on the claim of one of its players
+     *
+     * @return the game as it now stands
+     */
+    public GameData claimDraw(String authToken, int gameID)
+            throws Exception {
+
+        AuthData authData = authDAO.getAuth(authToken);
+        if (authData == null) {
+            throw new UnauthorizedException("Error: unauthorized");
+        }
+
+        String username = authData.username();
+        GameData gameData = gameDAO.getGame(gameID);
+
+        if (gameData == null) {
+            throw new BadRequestException("Error: Bad request");
+        }
+
+        if (!username.equals(gameData.whiteUsername()) && !username.equals(gameData.blackUsername())) {
+            throw new Exception("Only active players can claim a draw, not observers.");
+        }
+
+        ChessGame game = gameData.game();
+        if (game.isGameOver()) {
+            throw new Exception("Game already over.");
+        }
+        if (!game.claimDraw()) {
+            throw new Exception("A draw can only be claimed after fifty moves without a capture or pawn move.");
+        }
+
+        GameData updatedGame = new GameData(
+                gameData.gameID(),
+                gameData.whiteUsername(),
+                gameData.blackUsername(),
+                gameData.gameName(),
+                game
+        );
+        gameDAO.updateGame(updatedGame);
+
+        return updatedGame;
+    }
+
+    /**
+     * Writes every finished game as PGN, streaming them from the database one at a
+     * time so the archive can be any size
+     *
+     * @return the number of games written
+     */
+    public long exportFinishedGames(String authToken, Writer out)
+            throws UnauthorizedException, DataAccessException, IOException {
+
+        AuthData authData = authDAO.getAuth(authToken);
+        if (authData == null) {
+            throw new UnauthorizedException("Error: unauthorized");
+        }
+
+        PgnWriter writer = new PgnWriter(out);
+        try {
+            gameDAO.forEachGame(gameData -> {
+                if (gameData.game() == null || !gameData.game().isGameOver()) {
+                    return;
+                }
+                Map<String, String> tags = new LinkedHashMap<>();
+                tags.put("Event", gameData.gameName());
+                if (gameData.whiteUsername() != null) {
+                    tags.put("White", gameData.whiteUsername());
+                }
+                if (gameData.blackUsername() != null) {
+                    tags.put("Black", gameData.blackUsername());
+                }
+                try {
+                    writer.write(tags, gameData.game());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return writer.getGamesWritten();
+    }
+
     public GameData getGameData(String authToken, int gameID)
             throws UnauthorizedException, BadRequestException, DataAccessException {
 
@@ -32,8 +32,8 @@ public class UserService {
             throw new BadRequestException("Error: Bad request");
         }
 
-        // check if username already exists
-        if (userDAO.getUser(request.username()) != null) {
+        // check if username already exists, counting the bots' names as taken
+        if (BotDifficulty.forUsername(request.username()) != null || userDAO.getUser(request.username()) != null) {
             throw new AlreadyTakenException("Error: Already taken");
         }
 
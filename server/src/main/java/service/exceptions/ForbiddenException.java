@@ -0,0 +1,8 @@
+package service.exceptions;
+
+// Error 403 Forbidden
+public class ForbiddenException extends Exception {
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package service.exceptions;
+
+// Error 429 Too Many Requests
+public class TooManyRequestsException extends Exception {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -7,6 +7,9 @@ import model.data.GameData;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -79,6 +82,23 @@ public class GameDataAccessTest {
         assertEquals(0, games.size());
     }
 
+    @Test
+    void forEachGamePositive() throws DataAccessException {
+        gameDAO.createGame(new GameData(1, "myWhiteUser1", "myBlackUser1", "game1", new ChessGame()));
+        gameDAO.createGame(new GameData(2, "myWhiteUser2", "myBlackUser2", "game2", new ChessGame()));
+
+        List<String> names = new ArrayList<>();
+        gameDAO.forEachGame(game -> names.add(game.gameName()));
+        assertEquals(List.of("game1", "game2"), names);
+    }
+
+    @Test
+    void forEachGameNegative() throws DataAccessException {
+        List<GameData> games = new ArrayList<>();
+        gameDAO.forEachGame(games::add);
+        assertTrue(games.isEmpty());
+    }
+
     @Test
     void updateGamesPositive() throws DataAccessException, InvalidMoveException {
 
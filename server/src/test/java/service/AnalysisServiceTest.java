@@ -0,0 +1,129 @@
+package service;
+
+import dataaccess.*;
+import dataaccess.sqldao.SQLAuthDAO;
+import dataaccess.sqldao.SQLGameDAO;
+import dataaccess.sqldao.SQLUserDAO;
+import model.request.*;
+import model.result.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.exceptions.BadRequestException;
+import service.exceptions.ForbiddenException;
+import service.exceptions.TooManyRequestsException;
+import service.exceptions.UnauthorizedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnalysisServiceTest {
+    private static final String MATE_IN_ONE = "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1";
+
+    private AnalysisService analysisService;
+    private GameService gameService;
+    private String authToken;
+    private int gameID;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        UserDAO userDAO = new SQLUserDAO();
+        GameDAO gameDAO = new SQLGameDAO();
+        AuthDAO authDAO = new SQLAuthDAO();
+        UserService userService = new UserService(userDAO, authDAO);
+        gameService = new GameService(gameDAO, authDAO);
+        analysisService = new AnalysisService(gameService, authDAO);
+
+        userDAO.clear();
+        gameDAO.clear();
+        authDAO.clear();
+
+        authToken = userService.register(new RegisterRequest("user123", "pass67", "my_email@byu.edu")).authToken();
+        gameID = gameService.createGame(new CreateGameRequest(authToken, "analysis game")).gameID();
+    }
+
+    @Test
+    void analyzeFenPositive() throws Exception {
+        AnalysisResult result = analysisService.analyze(
+                new AnalysisRequest(authToken, null, MATE_IN_ONE, 3, null, false), (username, progress) -> fail()).join();
+
+        assertEquals("Ra8#", result.bestMove());
+        assertEquals(1, result.mateIn());
+        assertEquals(List.of("Ra8#"), result.principalVariation());
+    }
+
+    @Test
+    void analyzeGamePositive() throws Exception {
+        List<AnalysisResult> progress = new CopyOnWriteArrayList<>();
+        AnalysisResult result = analysisService.analyze(
+                new AnalysisRequest(authToken, gameID, null, 4, null, true), (username, update) -> {
+                    assertEquals("user123", username);
+                    progress.add(update);
+                }).join();
+
+        assertNotNull(result.bestMove());
+        assertNull(result.mateIn());
+        assertEquals(4, result.depth());
+        assertEquals(List.of(1, 2, 3, 4), progress.stream().map(AnalysisResult::depth).toList());
+        assertEquals(result.principalVariation().getFirst(), result.bestMove());
+    }
+
+    @Test
+    void analyzeNegative() {
+        assertThrows(UnauthorizedException.class, () -> analysisService.analyze(
+                new AnalysisRequest("fake auth", gameID, null, 3, null, false), (username, progress) -> { }));
+        assertThrows(BadRequestException.class, () -> analysisService.analyze(
+                new AnalysisRequest(authToken, gameID, MATE_IN_ONE, 3, null, false), (username, progress) -> { }));
+        assertThrows(BadRequestException.class, () -> analysisService.analyze(
+                new AnalysisRequest(authToken, null, "not a position", 3, null, false), (username, progress) -> { }));
+        assertThrows(BadRequestException.class, () -> analysisService.analyze(
+                new AnalysisRequest(authToken, gameID, null, 0, null, false), (username, progress) -> { }));
+        assertThrows(BadRequestException.class, () -> analysisService.analyze(
+                new AnalysisRequest(authToken, gameID, null, null, AnalysisService.MAX_TIME_MILLIS + 1, false),
+                (username, progress) -> { }));
+    }
+
+    @Test
+    void analyzeOwnGameNegative() throws Exception {
+        gameService.joinGame(new JoinGameRequest(authToken, "WHITE", gameID));
+        assertThrows(ForbiddenException.class, () -> analysisService.analyze(
+                new AnalysisRequest(authToken, gameID, null, 2, null, false), (username, progress) -> { }));
+
+        // once the game is over, its players may look back over it
+        gameService.resign(authToken, gameID);
+        assertNotNull(analysisService.analyze(
+                new AnalysisRequest(authToken, gameID, null, 2, null, false), (username, progress) -> { }).join().bestMove());
+    }
+
+    @Test
+    void quotaNegative() throws Exception {
+        // each analysis is held in its first progress report, so none finishes until released
+        CountDownLatch release = new CountDownLatch(1);
+        AnalysisRequest held = new AnalysisRequest(authToken, gameID, null, 2, null, true);
+        List<CompletableFuture<AnalysisResult>> running = new ArrayList<>();
+        for (int i = 0; i < AnalysisService.MAX_JOBS_PER_USER; i++) {
+            running.add(analysisService.analyze(held, (username, progress) -> {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        assertThrows(TooManyRequestsException.class, () -> analysisService.analyze(
+                new AnalysisRequest(authToken, null, MATE_IN_ONE, 1, null, false), (username, progress) -> { }));
+        release.countDown();
+        for (CompletableFuture<AnalysisResult> job : running) {
+            assertNotNull(job.join().bestMove());
+        }
+        // the quota frees up once the earlier analyses finish
+        assertEquals("Ra8#", analysisService.analyze(
+                new AnalysisRequest(authToken, null, MATE_IN_ONE, 1, null, false), (username, progress) -> { })
+                .join().bestMove());
+    }
+}
@@ -0,0 +1,109 @@
+package service;
+
+import chess.ChessGame;
+import dataaccess.*;
+import dataaccess.sqldao.SQLAuthDAO;
+import dataaccess.sqldao.SQLGameDAO;
+import dataaccess.sqldao.SQLUserDAO;
+import model.data.GameData;
+import model.data.UserData;
+import model.request.*;
+import model.result.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.exceptions.BadRequestException;
+import service.exceptions.UnauthorizedException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BotServiceTest {
+    private BotService botService;
+    private UserDAO userDAO;
+    private GameDAO gameDAO;
+    private String authToken;
+    private int gameID;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userDAO = new SQLUserDAO();
+        gameDAO = new SQLGameDAO();
+        AuthDAO authDAO = new SQLAuthDAO();
+        UserService userService = new UserService(userDAO, authDAO);
+        GameService gameService = new GameService(gameDAO, authDAO);
+        botService = new BotService(gameService, userDAO, authDAO);
+
+        userDAO.clear();
+        gameDAO.clear();
+        authDAO.clear();
+
+        authToken = userService.register(new RegisterRequest("user123", "pass67", "my_email@byu.edu")).authToken();
+        gameID = gameService.createGame(new CreateGameRequest(authToken, "bot game")).gameID();
+    }
+
+    @Test
+    void addBotPositive() throws Exception {
+        AddBotResult result = botService.addBot(new AddBotRequest(authToken, "BLACK", gameID, "easy"));
+
+        assertEquals(BotDifficulty.EASY.username(), result.username());
+        assertEquals(BotDifficulty.EASY.username(), gameDAO.getGame(gameID).blackUsername());
+    }
+
+    @Test
+    void addBotNegative() {
+        assertThrows(UnauthorizedException.class, () ->
+                botService.addBot(new AddBotRequest("fake auth", "BLACK", gameID, "easy")));
+        assertThrows(BadRequestException.class, () ->
+                botService.addBot(new AddBotRequest(authToken, "BLACK", gameID, "impossible")));
+    }
+
+    @Test
+    void addBotImpostorNegative() throws Exception {
+        // an account under a bot's name from before the names were reserved is not the bot's
+        userDAO.createUser(new UserData(BotDifficulty.EASY.username(), "pass67", "human@example.com"));
+        assertThrows(DataAccessException.class, () ->
+                botService.addBot(new AddBotRequest(authToken, "BLACK", gameID, "easy")));
+        assertNull(gameDAO.getGame(gameID).blackUsername());
+    }
+
+    @Test
+    void requestMovePositive() throws Exception {
+        botService.addBot(new AddBotRequest(authToken, "WHITE", gameID, "easy"));
+
+        CompletableFuture<GameData> moved = new CompletableFuture<>();
+        assertTrue(botService.requestMove(gameDAO.getGame(gameID), (username, game) -> moved.complete(game)));
+
+        GameData updated = moved.get(10, TimeUnit.SECONDS);
+        assertEquals(ChessGame.TeamColor.BLACK, updated.game().getTeamTurn());
+        assertEquals(1, gameDAO.getGame(gameID).game().getMoveHistory().size());
+    }
+
+    @Test
+    void requestMoveNegative() throws Exception {
+        botService.addBot(new AddBotRequest(authToken, "BLACK", gameID, "easy"));
+
+        assertFalse(botService.requestMove(gameDAO.getGame(gameID), (username, game) -> fail()));
+    }
+
+    @Test
+    void cancelPositive() throws Exception {
+        botService.addBot(new AddBotRequest(authToken, "WHITE", gameID, "hard"));
+
+        CompletableFuture<GameData> moved = new CompletableFuture<>();
+        assertTrue(botService.requestMove(gameDAO.getGame(gameID), (username, game) -> moved.complete(game)));
+        assertTrue(botService.cancel(gameID));
+
+        assertThrows(TimeoutException.class, () -> moved.get(1, TimeUnit.SECONDS));
+        assertEquals(0, gameDAO.getGame(gameID).game().getMoveHistory().size());
+    }
+
+    @Test
+    void cancelNegative() throws Exception {
+        botService.addBot(new AddBotRequest(authToken, "BLACK", gameID, "hard"));
+
+        assertFalse(botService.cancel(gameID));
+    }
+}
@@ -1,5 +1,7 @@
 package service;
 
+import chess.ChessGame;
+import chess.GameTermination;
 import dataaccess.*;
 
 import dataaccess.sqldao.SQLAuthDAO;
@@ -11,6 +13,9 @@ import model.result.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import service.exceptions.UnauthorizedException;
+
+import java.io.StringWriter;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class GameServiceTest {
@@ -117,4 +122,48 @@ public class GameServiceTest {
             gameService.joinGame(joinGameRequest);
         });
     }
+
+    @Test
+    void claimDrawPositive() throws Exception {
+        CreateGameResult created = createGame(authToken, "quiet game");
+        gameService.joinGame(new JoinGameRequest(authToken, "WHITE", created.gameID()));
+        GameData joined = gameDAO.getGame(created.gameID());
+        gameDAO.updateGame(new GameData(joined.gameID(), joined.whiteUsername(), joined.blackUsername(),
+                joined.gameName(), ChessGame.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 100 80")));
+
+        GameData drawn = gameService.claimDraw(authToken, created.gameID());
+        assertEquals(GameTermination.FIFTY_MOVE_RULE, drawn.game().getTermination());
+        assertTrue(gameDAO.getGame(created.gameID()).game().isGameOver());
+    }
+
+    @Test
+    void claimDrawNegative() throws Exception {
+        CreateGameResult created = createGame(authToken, "fresh game");
+        assertThrows(Exception.class, () -> gameService.claimDraw(authToken, created.gameID()));
+        gameService.joinGame(new JoinGameRequest(authToken, "WHITE", created.gameID()));
+        assertThrows(Exception.class, () -> gameService.claimDraw(authToken, created.gameID()));
+        assertFalse(gameDAO.getGame(created.gameID()).game().isGameOver());
+    }
+
+    @Test
+    void exportFinishedGamesPositive() throws Exception {
+        CreateGameResult finished = createGame(authToken, "finished game");
+        createGame(authToken, "ongoing game");
+        gameService.joinGame(new JoinGameRequest(authToken, "WHITE", finished.gameID()));
+        gameService.resign(authToken, finished.gameID());
+
+        StringWriter out = new StringWriter();
+        assertEquals(1, gameService.exportFinishedGames(authToken, out));
+        assertTrue(out.toString().contains("[Event \"finished game\"]"));
+        assertTrue(out.toString().contains("[White \"user123\"]"));
+        assertTrue(out.toString().contains("[Result \"0-1\"]"));
+        assertFalse(out.toString().contains("ongoing game"));
+    }
+
+    @Test
+    void exportFinishedGamesNegative() {
+        assertThrows(UnauthorizedException.class, () -> {
+            gameService.exportFinishedGames("fake auth", new StringWriter());
+        });
+    }
 }
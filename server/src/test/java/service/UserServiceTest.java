@@ -55,6 +55,12 @@ public class UserServiceTest {
         assertThrows(AlreadyTakenException.class, this::registerTestUser);
     }
 
+    @Test
+    void registerBotNameNegative() {
+        assertThrows(AlreadyTakenException.class, () -> userService.register(
+                new RegisterRequest(BotDifficulty.HARD.username(), testPassword, "human@example.com")));
+    }
+
     @Test
     void loginPositive() throws Exception {
         registerTestUser();
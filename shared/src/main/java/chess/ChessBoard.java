@@ -1,25 +1,81 @@
 package chess;
 
+import chess.bitboard.AttackTables;
+import chess.bitboard.Bitboards;
+import chess.bitboard.PieceSquareTables;
+import chess.bitboard.SlidingAttacks;
+import chess.bitboard.Zobrist;
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
+ * The board is stored as one bitboard per piece (indexed as described in
+ * {@link Bitboards}) plus occupancy masks for each color and for the whole
+ * board. {@link #addPiece} and {@link #getPiece} are a view over those bitboards.
+ * <p>
+ * Every placement and removal also updates the terms of the position's evaluation
+ * that depend only on which piece stands where: the Zobrist keys of all pieces and
+ * of the pawns alone, the middlegame and endgame sums of the
+ * {@link PieceSquareTables}, and the game phase. Making and unmaking a move then
+ * keeps them current without looking at the rest of the board.
+ * <p>
+ * Only the piece bitboards are stored as JSON; the rest is derived from them and
+ * rebuilt when a board is read, by {@link ChessBoardAdapter}.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessBoardAdapter.class)
 public class ChessBoard {
-    private final ChessPiece[][] squares;
+    private static final ChessPiece[] PIECES = new ChessPiece[Bitboards.PIECE_COUNT];
+
+    /**
+     * FEN letters by piece index: white pieces in upper case, black in lower case
+     */
+    private static final char[] FEN_LETTERS = "KQBNRPkqbnrp".toCharArray();
+    private static final int[] PIECE_BY_LETTER = new int[128];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                PIECES[Bitboards.pieceIndex(Bitboards.colorIndex(color), type)] = ChessPiece.of(color, type);
+            }
+        }
+        Arrays.fill(PIECE_BY_LETTER, Bitboards.NO_PIECE);
+        for (int pieceIndex = 0; pieceIndex < Bitboards.PIECE_COUNT; pieceIndex++) {
+            PIECE_BY_LETTER[FEN_LETTERS[pieceIndex]] = pieceIndex;
+        }
+    }
+
+    private final long[] pieceBitboards;
+    private final transient long[] colorBitboards;
+    private transient long occupied;
+    private final transient int[] kingSquares;
+    private transient long pieceKey;
+    private transient long pawnKey;
+    private transient int middlegameScore;
+    private transient int endgameScore;
+    private transient int phase;
+
     public ChessBoard() {
-        squares = new ChessPiece[8][8];
+        pieceBitboards = new long[Bitboards.PIECE_COUNT];
+        colorBitboards = new long[2];
+        kingSquares = new int[]{Bitboards.NO_SQUARE, Bitboards.NO_SQUARE};
     }
 
     public ChessBoard(ChessBoard copy) {
-        this.squares = new ChessPiece[8][8];
-        for (int r = 0; r < 8; r++) {
-            this.squares[r] = Arrays.copyOf(copy.squares[r], 8);
-        }
+        this.pieceBitboards = copy.pieceBitboards.clone();
+        this.colorBitboards = copy.colorBitboards.clone();
+        this.occupied = copy.occupied;
+        this.kingSquares = copy.kingSquares.clone();
+        this.pieceKey = copy.pieceKey;
+        this.pawnKey = copy.pawnKey;
+        this.middlegameScore = copy.middlegameScore;
+        this.endgameScore = copy.endgameScore;
+        this.phase = copy.phase;
     }
 
     /**
@@ -29,7 +85,14 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow()-1][position.getColumn()-1] = piece;
+        int square = Bitboards.square(position);
+        int existing = pieceAt(square);
+        if (existing != Bitboards.NO_PIECE) {
+            removePiece(square, existing);
+        }
+        if (piece != null) {
+            putPiece(square, Bitboards.pieceIndex(piece));
+        }
     }
 
     /**
@@ -40,7 +103,189 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[position.getRow()-1][position.getColumn()-1];
+        int pieceIndex = pieceAt(Bitboards.square(position));
+        return pieceIndex == Bitboards.NO_PIECE ? null : PIECES[pieceIndex];
+    }
+
+    /**
+     * Finds the piece on a square
+     *
+     * @param square the square index to look at
+     * @return the piece index on the square, or {@link Bitboards#NO_PIECE} if it is empty
+     */
+    public int pieceAt(int square) {
+        long bit = Bitboards.bit(square);
+        if ((occupied & bit) == 0) {
+            return Bitboards.NO_PIECE;
+        }
+        int first = (colorBitboards[Bitboards.WHITE] & bit) != 0 ? 0 : Bitboards.PIECE_TYPES;
+        for (int i = first; i < first + Bitboards.PIECE_TYPES; i++) {
+            if ((pieceBitboards[i] & bit) != 0) {
+                return i;
+            }
+        }
+        return Bitboards.NO_PIECE;
+    }
+
+    /**
+     * Places a piece on an empty square
+     *
+     * @param square the square index to place the piece on
+     * @param pieceIndex the piece to place
+     */
+    public void putPiece(int square, int pieceIndex) {
+        long bit = Bitboards.bit(square);
+        pieceBitboards[pieceIndex] |= bit;
+        colorBitboards[Bitboards.colorOf(pieceIndex)] |= bit;
+        occupied |= bit;
+        long key = Zobrist.piece(pieceIndex, square);
+        pieceKey ^= key;
+        middlegameScore += PieceSquareTables.middlegame(pieceIndex, square);
+        endgameScore += PieceSquareTables.endgame(pieceIndex, square);
+        phase += PieceSquareTables.phase(pieceIndex);
+        int type = Bitboards.typeOf(pieceIndex);
+        if (type == ChessPiece.PieceType.PAWN.ordinal()) {
+            pawnKey ^= key;
+        } else if (type == ChessPiece.PieceType.KING.ordinal()) {
+            kingSquares[Bitboards.colorOf(pieceIndex)] = square;
+        }
+    }
+
+    /**
+     * Removes a known piece from a square
+     *
+     * @param square the square index to clear
+     * @param pieceIndex the piece currently on the square
+     */
+    public void removePiece(int square, int pieceIndex) {
+        long bit = ~Bitboards.bit(square);
+        pieceBitboards[pieceIndex] &= bit;
+        colorBitboards[Bitboards.colorOf(pieceIndex)] &= bit;
+        occupied &= bit;
+        long key = Zobrist.piece(pieceIndex, square);
+        pieceKey ^= key;
+        middlegameScore -= PieceSquareTables.middlegame(pieceIndex, square);
+        endgameScore -= PieceSquareTables.endgame(pieceIndex, square);
+        phase -= PieceSquareTables.phase(pieceIndex);
+        int type = Bitboards.typeOf(pieceIndex);
+        if (type == ChessPiece.PieceType.PAWN.ordinal()) {
+            pawnKey ^= key;
+        } else if (type == ChessPiece.PieceType.KING.ordinal()
+                && kingSquares[Bitboards.colorOf(pieceIndex)] == square) {
+            // fall back to any other king of that color on unusual setup boards
+            long kings = pieceBitboards[pieceIndex];
+            kingSquares[Bitboards.colorOf(pieceIndex)] =
+                    kings == 0 ? Bitboards.NO_SQUARE : Long.numberOfTrailingZeros(kings);
+        }
+    }
+
+    /**
+     * @param color the color index of the king
+     * @return the square index of that king, or {@link Bitboards#NO_SQUARE} if there is none
+     */
+    public int getKingSquare(int color) {
+        return kingSquares[color];
+    }
+
+    /**
+     * Gets the piece part of the position's Zobrist key, which every placement and
+     * removal updates incrementally
+     *
+     * @return the XOR of the Zobrist keys of every piece on its square
+     */
+    public long getPieceKey() {
+        return pieceKey;
+    }
+
+    /**
+     * @return the XOR of the Zobrist keys of every pawn on its square, which identifies the pawn structure
+     */
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * @return the sum of the middlegame material and piece-square values, positive when white is ahead
+     */
+    public int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    /**
+     * @return the sum of the endgame material and piece-square values, positive when white is ahead
+     */
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * @return the game phase from the pieces left, from 0 for bare kings and pawns up to
+     * {@link PieceSquareTables#MAX_PHASE} for a full set, or beyond after promotions
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return the bitboard of every square holding the given piece index
+     */
+    public long getPieceBitboard(int pieceIndex) {
+        return pieceBitboards[pieceIndex];
+    }
+
+    /**
+     * @return the bitboard of every square holding the given piece
+     */
+    public long getPieceBitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceBitboards[Bitboards.pieceIndex(Bitboards.colorIndex(color), type)];
+    }
+
+    /**
+     * @return the bitboard of every square holding a piece of the given color index
+     */
+    public long getColorBitboard(int color) {
+        return colorBitboards[color];
+    }
+
+    /**
+     * @return the bitboard of every occupied square
+     */
+    public long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * Finds every piece of a color attacking a square by looking outward from the
+     * square: knight, king and pawn attack masks, and the first blocker along each
+     * rook and bishop ray
+     *
+     * @param square the square index being attacked
+     * @param color the color index of the attackers
+     * @param occupied the occupancy that blocks sliding pieces
+     * @return the bitboard of attacking pieces
+     */
+    public long attackersTo(int square, int color, long occupied) {
+        int base = color * Bitboards.PIECE_TYPES;
+        long queens = pieceBitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        long rookMovers = queens | pieceBitboards[base + ChessPiece.PieceType.ROOK.ordinal()];
+        long bishopMovers = queens | pieceBitboards[base + ChessPiece.PieceType.BISHOP.ordinal()];
+
+        return (AttackTables.knightAttacks(square) & pieceBitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (AttackTables.kingAttacks(square) & pieceBitboards[base + ChessPiece.PieceType.KING.ordinal()])
+                | (AttackTables.pawnAttacks(color ^ 1, square) & pieceBitboards[base + ChessPiece.PieceType.PAWN.ordinal()])
+                | (SlidingAttacks.rookAttacks(square, occupied) & rookMovers)
+                | (SlidingAttacks.bishopAttacks(square, occupied) & bishopMovers);
+    }
+
+    /**
+     * Determines if any piece of a color attacks a square
+     *
+     * @param square the square index being attacked
+     * @param color the color index of the attackers
+     * @return true if the square is attacked
+     */
+    public boolean isSquareAttacked(int square, int color) {
+        return attackersTo(square, color, occupied) != 0;
     }
 
     /**
@@ -59,11 +304,15 @@ public class ChessBoard {
      *
      */
     private void clearBoard() {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                squares[row-1][col-1] = null;
-            }
-        }
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(colorBitboards, 0L);
+        occupied = 0L;
+        pieceKey = 0L;
+        pawnKey = 0L;
+        middlegameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        Arrays.fill(kingSquares, Bitboards.NO_SQUARE);
     }
 
     /**
@@ -72,8 +321,8 @@ public class ChessBoard {
      */
     private void setPawns() {
         for (int col = 1; col <= 8; col++) {
-            addPiece(new ChessPosition(2, col), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-            addPiece(new ChessPosition(7, col), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN ));
+            addPiece(ChessPosition.of(2, col), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, col), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN ));
         }
     }
 
@@ -85,14 +334,102 @@ public class ChessBoard {
      * @param teamColor Color of the piece being set
      */
     private void setBackRank(int row, ChessGame.TeamColor teamColor) {
-        addPiece(new ChessPosition(row, 1), new ChessPiece(teamColor, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(row, 2), new ChessPiece(teamColor, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(row, 3), new ChessPiece(teamColor, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(row, 4), new ChessPiece(teamColor, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(row, 5), new ChessPiece(teamColor, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(row, 6), new ChessPiece(teamColor, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(row, 7), new ChessPiece(teamColor, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(row, 8), new ChessPiece(teamColor, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(row, 1), ChessPiece.of(teamColor, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(row, 2), ChessPiece.of(teamColor, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(row, 3), ChessPiece.of(teamColor, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(row, 4), ChessPiece.of(teamColor, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(row, 5), ChessPiece.of(teamColor, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(row, 6), ChessPiece.of(teamColor, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(row, 7), ChessPiece.of(teamColor, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(row, 8), ChessPiece.of(teamColor, ChessPiece.PieceType.ROOK));
+    }
+
+    /**
+     * Builds a board from the piece placement field of a FEN string, such as
+     * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR". Anything after the
+     * placement field is ignored.
+     *
+     * @param fen a FEN string or just its piece placement field
+     * @return the board it describes
+     * @throws IllegalArgumentException if the placement is malformed
+     */
+    public static ChessBoard fromFen(String fen) {
+        ChessBoard board = new ChessBoard();
+        board.readPlacement(fen);
+        return board;
+    }
+
+    /**
+     * @return the piece placement field of the FEN string for this board
+     */
+    public String toFen() {
+        StringBuilder sb = new StringBuilder(64);
+        writePlacement(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Places the pieces of a FEN piece placement field on this empty board
+     *
+     * @param fen the FEN string, starting with the piece placement field
+     * @return the index just past the placement field
+     * @throws IllegalArgumentException if the placement is malformed
+     */
+    int readPlacement(String fen) {
+        int row = 8;
+        int col = 1;
+        int i = 0;
+        for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw new IllegalArgumentException("Invalid FEN piece placement: " + fen);
+                }
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else if (c < PIECE_BY_LETTER.length && PIECE_BY_LETTER[c] != Bitboards.NO_PIECE && col <= 8) {
+                putPiece(Bitboards.square(row, col), PIECE_BY_LETTER[c]);
+                col++;
+            } else {
+                throw new IllegalArgumentException("Invalid FEN piece placement: " + fen);
+            }
+            if (col > 9) {
+                throw new IllegalArgumentException("Invalid FEN piece placement: " + fen);
+            }
+        }
+        if (row != 1 || col != 9) {
+            throw new IllegalArgumentException("Invalid FEN piece placement: " + fen);
+        }
+        return i;
+    }
+
+    /**
+     * Appends the FEN piece placement field for this board
+     */
+    void writePlacement(StringBuilder sb) {
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                int pieceIndex = pieceAt(Bitboards.square(row, col));
+                if (pieceIndex == Bitboards.NO_PIECE) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                sb.append(FEN_LETTERS[pieceIndex]);
+            }
+            if (empty > 0) {
+                sb.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                sb.append('/');
+            }
+        }
     }
 
     @Override
@@ -101,12 +438,12 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        return Arrays.equals(pieceBitboards, that.pieceBitboards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(pieceKey);
     }
 
     @Override
@@ -116,10 +453,11 @@ public class ChessBoard {
         for (int r = 8; r >= 1; r--) {
             sb.append("|");
             for (int c = 1; c <= 8; c++) {
-                ChessPiece piece = getPiece(new ChessPosition(r, c));
-                if (piece == null) {
+                int pieceIndex = pieceAt(Bitboards.square(r, c));
+                if (pieceIndex == Bitboards.NO_PIECE) {
                     sb.append(" |");
                 } else {
+                    ChessPiece piece = PIECES[pieceIndex];
                     char ch = switch (piece.getPieceType()) {
                         case KING -> 'k';
                         case QUEEN -> 'q';
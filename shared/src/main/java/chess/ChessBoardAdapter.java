@@ -0,0 +1,83 @@
+package chess;
+
+import chess.bitboard.Bitboards;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Stores a {@link ChessBoard} as JSON by its piece bitboards alone. Everything
+ * else on the board follows from where the pieces stand, so it is rebuilt by
+ * placing each piece again when the board is read.
+ * <p>
+ * Boards stored before the board held bitboards were an 8x8 {@code squares} array
+ * of pieces, indexed by row and then column; those are read as well.
+ */
+final class ChessBoardAdapter extends TypeAdapter<ChessBoard> {
+    private static final String PIECE_BITBOARDS = "pieceBitboards";
+    private static final String SQUARES = "squares";
+
+    @Override
+    public void write(JsonWriter out, ChessBoard board) throws IOException {
+        if (board == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject().name(PIECE_BITBOARDS).beginArray();
+        for (int pieceIndex = 0; pieceIndex < Bitboards.PIECE_COUNT; pieceIndex++) {
+            out.value(board.getPieceBitboard(pieceIndex));
+        }
+        out.endArray().endObject();
+    }
+
+    @Override
+    public ChessBoard read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        JsonObject json = JsonParser.parseReader(in).getAsJsonObject();
+        ChessBoard board = new ChessBoard();
+        if (json.has(PIECE_BITBOARDS)) {
+            JsonArray bitboards = json.getAsJsonArray(PIECE_BITBOARDS);
+            if (bitboards.size() != Bitboards.PIECE_COUNT) {
+                throw new JsonParseException("Expected " + Bitboards.PIECE_COUNT + " piece bitboards");
+            }
+            long placed = 0;
+            for (int pieceIndex = 0; pieceIndex < Bitboards.PIECE_COUNT; pieceIndex++) {
+                long pieces = bitboards.get(pieceIndex).getAsLong();
+                if ((pieces & placed) != 0) {
+                    throw new JsonParseException("Two pieces on one square");
+                }
+                placed |= pieces;
+                for (; pieces != 0; pieces &= pieces - 1) {
+                    board.putPiece(Long.numberOfTrailingZeros(pieces), pieceIndex);
+                }
+            }
+        } else if (json.has(SQUARES)) {
+            JsonArray rows = json.getAsJsonArray(SQUARES);
+            for (int row = 1; row <= Math.min(rows.size(), 8); row++) {
+                JsonArray cols = rows.get(row - 1).getAsJsonArray();
+                for (int col = 1; col <= Math.min(cols.size(), 8); col++) {
+                    JsonElement piece = cols.get(col - 1);
+                    if (!piece.isJsonNull()) {
+                        JsonObject fields = piece.getAsJsonObject();
+                        ChessGame.TeamColor color = ChessGame.TeamColor.valueOf(fields.get("pieceColor").getAsString());
+                        ChessPiece.PieceType type = ChessPiece.PieceType.valueOf(fields.get("type").getAsString());
+                        board.putPiece(Bitboards.square(row, col),
+                                Bitboards.pieceIndex(Bitboards.colorIndex(color), type));
+                    }
+                }
+            }
+        }
+        return board;
+    }
+}
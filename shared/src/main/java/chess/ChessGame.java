@@ -1,7 +1,14 @@
 package chess;
 
+import chess.bitboard.AttackTables;
+import chess.bitboard.Bitboards;
+import chess.bitboard.Zobrist;
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -10,29 +17,249 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessGameAdapter.class)
 public class ChessGame {
 
+    /**
+     * A buffer of this many moves can hold every legal move of any position
+     */
+    public static final int MAX_MOVES = 256;
+
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 2;
+    static final int BLACK_KINGSIDE = 4;
+    static final int BLACK_QUEENSIDE = 8;
+    static final int ALL_CASTLING = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+
+    /**
+     * Castling rights that survive a move touching each square, so moving a king or rook
+     * (or capturing a rook) on its home square clears the matching rights
+     */
+    private static final int[] CASTLING_MASK = new int[64];
+
+    /**
+     * A draw can be claimed once this many halfmoves pass without a capture or pawn move.
+     * Unlike a threefold repetition, this does not end the game by itself: fifty quiet
+     * moves can still be progress toward a win, such as a long mating manoeuvre, so
+     * the players decide, and only {@link #SEVENTY_FIVE_MOVE_LIMIT} ends the game for them.
+     */
+    public static final int FIFTY_MOVE_LIMIT = 100;
+
+    /**
+     * The game is drawn automatically once this many halfmoves pass without a capture or pawn move
+     */
+    public static final int SEVENTY_FIVE_MOVE_LIMIT = 150;
+
+    /**
+     * The halfmove clock stops counting here so it always fits its 8 bits of the undo word
+     */
+    private static final int MAX_HALFMOVE_CLOCK = 0xFF;
+    /** Far beyond any real game, and small enough that reading one more digit cannot overflow */
+    private static final int MAX_FULLMOVE_NUMBER = 1_000_000;
+
+    private static final int INITIAL_HISTORY = 32;
+
+    static final int CHECKS = 1;
+    static final int MATES = 2;
+
+    private static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
+    static {
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[Bitboards.square(1, 1)] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[Bitboards.square(1, 8)] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[Bitboards.square(1, 5)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[Bitboards.square(8, 1)] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASK[Bitboards.square(8, 8)] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[Bitboards.square(8, 5)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+    }
+
     private ChessBoard board;
     private TeamColor teamTurn;
-    private boolean whiteKingMoved;
-    private boolean blackKingMoved;
-    private boolean whiteKingsideRookMoved;
-    private boolean blackKingsideRookMoved;
-    private boolean whiteQueensideRookMoved;
-    private boolean blackQueensideRookMoved;
+    private int castlingRights;
+    private int enPassantSquare = Bitboards.NO_SQUARE;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+
+    // one entry per move: the packed move, its undo word and the key of the position it was made from
+    private int[] moveHistory;
+    private int[] undoHistory;
+    private long[] positionHistory;
+    private int historyLength;
+    private int historyEnd;
     private boolean gameOver = false;
+    private GameTermination termination;
+    private TeamColor winner;
+
+    private transient MoveGenerator generator;
+    private transient int[][] cachedMoves;
+    private transient int[] cachedCounts;
+    private transient long[] cachedKeys;
 
 
     public ChessGame() {
         board = new ChessBoard();
         board.resetBoard();
         teamTurn = TeamColor.WHITE;
-        whiteKingMoved = false;
-        blackKingMoved = false;
-        whiteKingsideRookMoved = false;
-        blackKingsideRookMoved = false;
-        whiteQueensideRookMoved = false;
-        blackQueensideRookMoved = false;
+        castlingRights = ALL_CASTLING;
+    }
+
+    /**
+     * Starts a game with white to move on the given board and no castling rights
+     */
+    private ChessGame(ChessBoard board) {
+        this.board = board;
+        teamTurn = TeamColor.WHITE;
+    }
+
+    /**
+     * Copies another game, including its move history, so the copy can undo and
+     * redo the same moves and a search of it still sees repeated positions. The
+     * copy shares no state with the original, so each can be used by a different
+     * thread.
+     *
+     * @param copy the game to copy
+     */
+    public ChessGame(ChessGame copy) {
+        board = new ChessBoard(copy.board);
+        teamTurn = copy.teamTurn;
+        castlingRights = copy.castlingRights;
+        enPassantSquare = copy.enPassantSquare;
+        halfmoveClock = copy.halfmoveClock;
+        fullmoveNumber = copy.fullmoveNumber;
+        if (copy.moveHistory != null) {
+            moveHistory = copy.moveHistory.clone();
+            undoHistory = copy.undoHistory.clone();
+            positionHistory = copy.positionHistory.clone();
+        }
+        historyLength = copy.historyLength;
+        historyEnd = copy.historyEnd;
+        gameOver = copy.gameOver;
+        termination = copy.termination;
+        winner = copy.winner;
+    }
+
+    /**
+     * Builds a game from a FEN string, such as
+     * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1". The two clock
+     * fields may be left off, as they are in EPD test suites. An en passant square
+     * is only kept if a pawn could capture onto it, matching {@link #getEnPassantSquare()}.
+     *
+     * @param fen the position in Forsyth-Edwards Notation
+     * @return a game set up in that position, with no move history
+     * @throws IllegalArgumentException if the FEN string is malformed
+     */
+    public static ChessGame fromFen(String fen) {
+        ChessGame game = new ChessGame(new ChessBoard());
+        int i = game.board.readPlacement(fen);
+
+        i = skipSpace(fen, i);
+        char side = (i < fen.length()) ? fen.charAt(i++) : '?';
+        if (side != 'w' && side != 'b') {
+            throw new IllegalArgumentException("Invalid FEN side to move: " + fen);
+        }
+        game.teamTurn = (side == 'w') ? TeamColor.WHITE : TeamColor.BLACK;
+
+        i = skipSpace(fen, i);
+        game.castlingRights = 0;
+        for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+            game.castlingRights |= switch (fen.charAt(i)) {
+                case 'K' -> WHITE_KINGSIDE;
+                case 'Q' -> WHITE_QUEENSIDE;
+                case 'k' -> BLACK_KINGSIDE;
+                case 'q' -> BLACK_QUEENSIDE;
+                case '-' -> 0;
+                default -> throw new IllegalArgumentException("Invalid FEN castling rights: " + fen);
+            };
+        }
+
+        i = skipSpace(fen, i);
+        if (i < fen.length() && fen.charAt(i) != '-') {
+            // the square a pawn of the team not to move has just skipped over
+            char rank = (game.teamTurn == TeamColor.WHITE) ? '6' : '3';
+            if (i + 1 >= fen.length() || fen.charAt(i) < 'a' || fen.charAt(i) > 'h' || fen.charAt(i + 1) != rank) {
+                throw new IllegalArgumentException("Invalid FEN en passant square: " + fen);
+            }
+            int target = Bitboards.square(fen.charAt(i + 1) - '0', fen.charAt(i) - 'a' + 1);
+            int pawnColor = Bitboards.colorIndex(game.teamTurn) ^ 1;
+            game.enPassantSquare = game.enPassantTarget(target, pawnColor);
+        }
+        while (i < fen.length() && fen.charAt(i) != ' ') {
+            i++;
+        }
+
+        i = skipSpace(fen, i);
+        if (i < fen.length()) {
+            int halfmoves = 0;
+            for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+                halfmoves = Math.min(halfmoves * 10 + digit(fen, i), MAX_HALFMOVE_CLOCK);
+            }
+            game.halfmoveClock = halfmoves;
+
+            i = skipSpace(fen, i);
+            int fullmoves = 0;
+            for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+                fullmoves = fullmoves * 10 + digit(fen, i);
+                if (fullmoves > MAX_FULLMOVE_NUMBER) {
+                    throw new IllegalArgumentException("Invalid FEN fullmove number: " + fen);
+                }
+            }
+            game.fullmoveNumber = Math.max(fullmoves, 1);
+        }
+        return game;
+    }
+
+    /**
+     * Writes the position as a FEN string. Two games with the same FEN are the
+     * same position with the same clocks, which makes it a compact storage key.
+     *
+     * @return the position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        StringBuilder sb = new StringBuilder(90);
+        board.writePlacement(sb);
+        sb.append(teamTurn == TeamColor.WHITE ? " w " : " b ");
+        if (castlingRights == 0) {
+            sb.append('-');
+        } else {
+            if ((castlingRights & WHITE_KINGSIDE) != 0) {
+                sb.append('K');
+            }
+            if ((castlingRights & WHITE_QUEENSIDE) != 0) {
+                sb.append('Q');
+            }
+            if ((castlingRights & BLACK_KINGSIDE) != 0) {
+                sb.append('k');
+            }
+            if ((castlingRights & BLACK_QUEENSIDE) != 0) {
+                sb.append('q');
+            }
+        }
+        sb.append(' ').append(enPassantSquare == Bitboards.NO_SQUARE ? "-" : Bitboards.squareName(enPassantSquare));
+        sb.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return sb.toString();
+    }
+
+    private static int skipSpace(String fen, int i) {
+        while (i < fen.length() && fen.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int digit(String fen, int i) {
+        char c = fen.charAt(i);
+        if (c < '0' || c > '9') {
+            throw new IllegalArgumentException("Invalid FEN move counter: " + fen);
+        }
+        return c - '0';
+    }
+
+    /**
+     * @return the number of the current full move, starting at 1 and increasing after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
     }
 
     /**
@@ -51,6 +278,35 @@ public class ChessGame {
         this.teamTurn = team;
     }
 
+    /**
+     * Gets the 64-bit Zobrist key of the position: the pieces, the side to move,
+     * the castling rights and the en passant file. The piece part is updated
+     * incrementally by the board on every move, so this is constant time.
+     *
+     * @return the position key
+     */
+    public long getZobristKey() {
+        long key = board.getPieceKey() ^ Zobrist.castling(castlingRights);
+        if (teamTurn == TeamColor.BLACK) {
+            key ^= Zobrist.blackToMove();
+        }
+        if (enPassantSquare != Bitboards.NO_SQUARE) {
+            key ^= Zobrist.enPassantFile(Bitboards.col(enPassantSquare) - 1);
+        }
+        return key;
+    }
+
+    /**
+     * Gets the square a pawn could capture en passant on this turn. It is only set
+     * after a double pawn push that lands beside an enemy pawn, so positions that
+     * differ only by an en passant capture nobody can make are the same position.
+     *
+     * @return the en passant target square index, or {@link Bitboards#NO_SQUARE}
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
     /**
      * Enum identifying the 2 possible teams in a chess game
      */
@@ -67,6 +323,100 @@ public class ChessGame {
         this.gameOver = gameOver;
     }
 
+    /**
+     * @return how the game ended, or null if it is not over or was ended without a reason
+     */
+    public GameTermination getTermination() {
+        return termination;
+    }
+
+    /**
+     * @return the team that won, or null if the game is not over or was drawn
+     */
+    public TeamColor getWinner() {
+        return winner;
+    }
+
+    /**
+     * Ends the game with the given team resigning
+     *
+     * @param team the team that resigns
+     */
+    public void resign(TeamColor team) {
+        endGame(GameTermination.RESIGNATION, opponent(team));
+    }
+
+    /**
+     * Ends the game as a draw under the fifty-move rule, if the halfmove clock allows it.
+     * A threefold repetition is also a claimable draw under the rules, but it ends the
+     * game as soon as it happens instead: a position that keeps coming back shows
+     * neither side is making progress, and a game between bots would otherwise cycle
+     * with nobody to claim it.
+     *
+     * @return true if the draw was claimed, false if it cannot be claimed yet
+     */
+    public boolean claimDraw() {
+        if (gameOver || halfmoveClock < FIFTY_MOVE_LIMIT) {
+            return false;
+        }
+        endGame(GameTermination.FIFTY_MOVE_RULE, null);
+        return true;
+    }
+
+    /**
+     * @return the number of halfmoves since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Counts how many times the current position has occurred in this game. Only
+     * positions since the last capture or pawn move can repeat, and only every
+     * second one has the same team to move, so the scan is bounded by the
+     * halfmove clock rather than the length of the game.
+     *
+     * @return the number of times the current position has occurred, at least 1
+     */
+    public int repetitionCount() {
+        long key = getZobristKey();
+        int oldest = Math.max(historyLength - halfmoveClock, 0);
+        int count = 1;
+        for (int i = historyLength - 2; i >= oldest; i -= 2) {
+            if (positionHistory[i] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Determines if neither team has enough material left to checkmate: kings
+     * alone, a single minor piece, or only bishops that all stand on squares of
+     * one color
+     *
+     * @return true if checkmate is impossible for both teams
+     */
+    public boolean hasInsufficientMaterial() {
+        long heavy = 0L;
+        long knights = 0L;
+        long bishops = 0L;
+        for (int color = Bitboards.WHITE; color <= Bitboards.BLACK; color++) {
+            heavy |= board.getPieceBitboard(Bitboards.pieceIndex(color, ChessPiece.PieceType.PAWN))
+                    | board.getPieceBitboard(Bitboards.pieceIndex(color, ChessPiece.PieceType.ROOK))
+                    | board.getPieceBitboard(Bitboards.pieceIndex(color, ChessPiece.PieceType.QUEEN));
+            knights |= board.getPieceBitboard(Bitboards.pieceIndex(color, ChessPiece.PieceType.KNIGHT));
+            bishops |= board.getPieceBitboard(Bitboards.pieceIndex(color, ChessPiece.PieceType.BISHOP));
+        }
+        if (heavy != 0) {
+            return false;
+        }
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+        return knights == 0 && ((bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0);
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -79,23 +429,87 @@ public class ChessGame {
         if (piece == null) {
             return new ArrayList<>();
         }
+        return legalMoves(piece.getTeamColor(), Bitboards.bit(Bitboards.square(startPosition)));
+    }
+
+    /**
+     * Gets every legal move for the team whose turn it is
+     *
+     * @return all legal moves in the current position
+     */
+    public Collection<ChessMove> legalMoves() {
+        return legalMoves(teamTurn, -1L);
+    }
 
-        Collection<ChessMove> possibleMoves = new ArrayList<>(piece.pieceMoves(board, startPosition));
-        Collection<ChessMove> legalMoves = new ArrayList<>();
+    /**
+     * Writes every legal move for the team whose turn it is into a buffer as
+     * {@link PackedMove} ints, without allocating
+     *
+     * @param buffer the buffer to fill, at least {@link #MAX_MOVES} long
+     * @return the number of moves written
+     */
+    public int generateLegalMoves(int[] buffer) {
+        return generateLegalMoves(teamTurn, -1L, buffer);
+    }
 
-        for (ChessMove move : possibleMoves) {
-            ChessBoard boardCopy = new ChessBoard(board);
-            makeMoveHelper(boardCopy, move, piece);
-            if (!isInCheckHelper(piece.getTeamColor(), boardCopy)) {
-                legalMoves.add(move);
+    /**
+     * Generates legal moves with the pin and check-mask move generator
+     *
+     * @param teamColor the team to generate moves for
+     * @param fromMask bitboard of squares whose pieces should be included
+     * @param buffer the buffer to fill with packed moves
+     * @return the number of moves written
+     */
+    private int generateLegalMoves(TeamColor teamColor, long fromMask, int[] buffer) {
+        if (generator == null) {
+            generator = new MoveGenerator();
+        }
+        // the en passant square only belongs to the side to move
+        int enPassant = (teamColor == teamTurn) ? enPassantSquare : Bitboards.NO_SQUARE;
+        return generator.generate(board, Bitboards.colorIndex(teamColor), castlingRights, enPassant, fromMask, buffer);
+    }
+
+    /**
+     * Converts the cached legal moves of the selected pieces to ChessMove objects
+     *
+     * @param teamColor the team to get moves for
+     * @param fromMask bitboard of squares whose pieces should be included
+     * @return the legal moves of the selected pieces
+     */
+    private Collection<ChessMove> legalMoves(TeamColor teamColor, long fromMask) {
+        int count = cachedLegalMoves(teamColor);
+        int[] cached = cachedMoves[Bitboards.colorIndex(teamColor)];
+        Collection<ChessMove> moves = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if ((fromMask & Bitboards.bit(PackedMove.from(cached[i]))) != 0) {
+                moves.add(PackedMove.toChessMove(cached[i]));
             }
         }
+        return moves;
+    }
 
-        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
-            ChessBoard boardCopy = new ChessBoard(board);
-            addCastleMoves(legalMoves, startPosition, piece, boardCopy);
+    /**
+     * Generates every legal move of a team once per position. validMoves, makeMove,
+     * checkmate and stalemate detection all read the same moves, which are kept
+     * until the Zobrist key of the game changes, so any move, undo or edit to the
+     * board regenerates them on next use.
+     *
+     * @param teamColor the team to get moves for
+     * @return the number of legal moves now cached for the team
+     */
+    private int cachedLegalMoves(TeamColor teamColor) {
+        if (cachedMoves == null) {
+            cachedMoves = new int[2][MAX_MOVES];
+            cachedCounts = new int[]{-1, -1};
+            cachedKeys = new long[2];
         }
-        return legalMoves;
+        int color = Bitboards.colorIndex(teamColor);
+        long key = getZobristKey();
+        if (cachedCounts[color] < 0 || cachedKeys[color] != key) {
+            cachedCounts[color] = generateLegalMoves(teamColor, -1L, cachedMoves[color]);
+            cachedKeys[color] = key;
+        }
+        return cachedCounts[color];
     }
 
     /**
@@ -118,267 +532,325 @@ public class ChessGame {
         if (piece.getTeamColor() != teamTurn) {
             throw new InvalidMoveException("Not your turn");
         }
-        Collection<ChessMove> validMoves = validMoves(start);
-        if (!validMoves.contains(move)) {
+        int packedMove = findLegalMove(move);
+        if (packedMove == PackedMove.NONE) {
             throw new InvalidMoveException("Illegal move");
         }
-        makeMoveHelper(this.board, move, piece);
-        updateCastlingRights(piece, move);
-        switchTurns();
+        doMove(packedMove);
+        updateTermination();
+    }
 
-        if (isInCheckmate(teamTurn) || isInStalemate(teamTurn)) {
-            setGameOver(true);
+    /**
+     * Ends the game if the move just made left the team to move without legal
+     * moves, or drew the game by repetition, the seventy-five-move rule or
+     * insufficient material
+     */
+    private void updateTermination() {
+        if (!hasAvailableMoves(teamTurn)) {
+            if (isInCheck(teamTurn)) {
+                endGame(GameTermination.CHECKMATE, opponent(teamTurn));
+            } else {
+                endGame(GameTermination.STALEMATE, null);
+            }
+        } else if (hasInsufficientMaterial()) {
+            endGame(GameTermination.INSUFFICIENT_MATERIAL, null);
+        } else if (halfmoveClock >= SEVENTY_FIVE_MOVE_LIMIT) {
+            endGame(GameTermination.SEVENTY_FIVE_MOVE_RULE, null);
+        } else if (repetitionCount() >= 3) {
+            endGame(GameTermination.THREEFOLD_REPETITION, null);
         }
     }
 
+    private void endGame(GameTermination termination, TeamColor winner) {
+        this.gameOver = true;
+        this.termination = termination;
+        this.winner = winner;
+    }
+
+    private static TeamColor opponent(TeamColor team) {
+        return (team == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+    }
+
     /**
-     * Makes a move in a chess game on a given board
+     * Finds the legal packed move matching a ChessMove for the team whose turn it is
      *
-     * @param board the board we're making the move on
-     * @param move chess move to perform
-     * @param piece the piece we move to the next square
-     */
-    private void makeMoveHelper(ChessBoard board, ChessMove move, ChessPiece piece) {
-
-        ChessPosition startPos = move.getStartPosition();
-        ChessPosition endPos = move.getEndPosition();
-
-        // remove piece from start square
-        board.addPiece(startPos, null);
-
-        // update piece type if promoting
-        if (piece.getPieceType() == ChessPiece.PieceType.PAWN && move.getPromotionPiece() != null) {
-            piece = new ChessPiece(piece.getTeamColor(), move.getPromotionPiece());
-        }
-
-        // replace piece at target square with new piece
-        board.addPiece(endPos, piece);
-
-        // move rook if castling
-        if (piece.getPieceType() == ChessPiece.PieceType.KING &&
-                Math.abs(move.getStartPosition().getColumn() -
-                        move.getEndPosition().getColumn()) == 2) {
-            int row = startPos.getRow();
-            if (endPos.getColumn() == 7) {
-                ChessPosition rookStartPos = new ChessPosition(row, 8);
-                ChessPosition rookEndPos = new ChessPosition(row, 6);
-                ChessPiece rook = board.getPiece(rookStartPos);
-                board.addPiece(rookStartPos, null);
-                board.addPiece(rookEndPos, rook);
-            } else if (endPos.getColumn() == 3) {
-                ChessPosition rookStartPos = new ChessPosition(row, 1);
-                ChessPosition rookEndPos = new ChessPosition(row, 4);
-                ChessPiece rook = board.getPiece(rookStartPos);
-                board.addPiece(rookStartPos, null);
-                board.addPiece(rookEndPos, rook);
+     * @param move the move to look for
+     * @return the packed move, or {@link PackedMove#NONE} if it is not legal
+     */
+    public int findLegalMove(ChessMove move) {
+        int count = cachedLegalMoves(teamTurn);
+        int[] cached = cachedMoves[Bitboards.colorIndex(teamTurn)];
+        for (int i = 0; i < count; i++) {
+            if (PackedMove.matches(cached[i], move)) {
+                return cached[i];
             }
         }
+        return PackedMove.NONE;
     }
 
-
     /**
-     * Updates castling rights based on the piece and move performed.
+     * Makes a packed move on the game board in place, without checking it is legal.
+     * Moves the castling rook, removes pawns captured en passant, promotes pawns,
+     * updates castling rights, the en passant square and the halfmove clock and
+     * switches turns. The move is appended to the history, replacing any moves that
+     * could have been redone, so {@link #undoMove()} can restore the previous state.
      *
-     * @param piece the piece being moved
-     * @param move the move just made
+     * @param move a packed move, normally one produced by {@link #generateLegalMoves}
      */
-    private void updateCastlingRights(ChessPiece piece, ChessMove move) {
-        ChessPosition startPos = move.getStartPosition();
+    public void doMove(int move) {
+        applyMove(move);
+        historyEnd = historyLength;
+    }
 
-        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
-            if (piece.getTeamColor() == TeamColor.WHITE) {
-                whiteKingMoved = true;
-            } else {
-                blackKingMoved = true;
-            }
+    /**
+     * Makes a packed move and records it at the current point of the history
+     */
+    private void applyMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int moving = board.pieceAt(from);
+        int capturedSquare = capturedSquare(move);
+        int captured = board.pieceAt(capturedSquare);
+        pushHistory(move, (captured & 0xF) | (castlingRights << 4) | (moving << 8) | ((enPassantSquare + 1) << 12)
+                | (halfmoveClock << 19), getZobristKey());
+
+        if (captured != Bitboards.NO_PIECE) {
+            board.removePiece(capturedSquare, captured);
         }
+        board.removePiece(from, moving);
 
-        if (piece.getPieceType() == ChessPiece.PieceType.ROOK) {
-            if (piece.getTeamColor() == TeamColor.WHITE) {
-                if (startPos.equals(new ChessPosition(1, 1))) {
-                    whiteQueensideRookMoved = true;
-                } else if (startPos.equals(new ChessPosition(1, 8))) {
-                    whiteKingsideRookMoved = true;
-                }
-            } else {
-                if (startPos.equals(new ChessPosition(8, 1))) {
-                    blackQueensideRookMoved = true;
-                } else if (startPos.equals(new ChessPosition(8, 8))) {
-                    blackKingsideRookMoved = true;
-                }
-            }
+        int promotion = PackedMove.promotionType(move);
+        int placed = (promotion < 0) ? moving : Bitboards.colorOf(moving) * Bitboards.PIECE_TYPES + promotion;
+        board.putPiece(to, placed);
+
+        if (PackedMove.hasFlag(move, PackedMove.CASTLE)) {
+            int rook = moving - ChessPiece.PieceType.KING.ordinal() + ChessPiece.PieceType.ROOK.ordinal();
+            board.removePiece(castleRookFrom(from, to), rook);
+            board.putPiece(castleRookTo(from, to), rook);
         }
+
+        castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        enPassantSquare = PackedMove.hasFlag(move, PackedMove.DOUBLE_PUSH)
+                ? enPassantTarget((from + to) >>> 1, Bitboards.colorOf(moving)) : Bitboards.NO_SQUARE;
+        if (captured != Bitboards.NO_PIECE || Bitboards.typeOf(moving) == ChessPiece.PieceType.PAWN.ordinal()) {
+            halfmoveClock = 0;
+        } else if (halfmoveClock < MAX_HALFMOVE_CLOCK) {
+            halfmoveClock++;
+        }
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber++;
+        }
+        switchTurns();
     }
 
     /**
-     * Adds possible castle moves if legal
+     * Reverses the last move in the history, restoring the captured piece, the
+     * castling rook, castling rights, the en passant square, the halfmove clock and
+     * the team turn exactly. The move stays in the history so {@link #redoMove()}
+     * can make it again. Taking back the move that ended a game reopens it, unless
+     * it ended by resignation.
      *
-     * @param moves array of moves
-     * @param kingPos the position of the king
-     * @param kingPiece the king piece
-     * @param board the board to test
+     * @throws IllegalStateException if there is no move to undo
      */
-    private void addCastleMoves(Collection<ChessMove> moves, ChessPosition kingPos, ChessPiece kingPiece, ChessBoard board) {
-        TeamColor teamColor = kingPiece.getTeamColor();
-        if (canCastleKingside(teamColor, board)) {
-            ChessPosition target = (teamColor == TeamColor.WHITE) ? new ChessPosition(1, 7) : new ChessPosition(8, 7);
-            moves.add(new ChessMove(kingPos, target, null));
+    public void undoMove() {
+        if (historyLength == 0) {
+            throw new IllegalStateException("No move to undo");
         }
-
-        if (canCastleQueenside(teamColor, board)) {
-            ChessPosition target = (teamColor == TeamColor.WHITE) ? new ChessPosition(1, 3) : new ChessPosition(8, 3);
-            moves.add(new ChessMove(kingPos, target, null));
+        retractMove();
+        if (termination != null && termination != GameTermination.RESIGNATION) {
+            gameOver = false;
+            termination = null;
+            winner = null;
         }
     }
 
     /**
-     * Determines if a king can castle kingside
-     *
-     * @param teamColor color of team
-     * @param board board to implement test on
-     * @return true if the king can castle kingside false otherwise
+     * Takes back the last move in the history, leaving it available to redo and
+     * the game result untouched, so the position before it can be inspected and
+     * {@link #replayMove()} can restore the game exactly
      */
-    private boolean canCastleKingside(TeamColor teamColor, ChessBoard board) {
-        ChessPosition rookPos = (teamColor == TeamColor.WHITE)
-                ? new ChessPosition(1, 8) : new ChessPosition(8, 8);
+    void retractMove() {
+        historyLength--;
+        int move = moveHistory[historyLength];
+        int undo = undoHistory[historyLength];
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int captured = undo & 0xF;
+        int moving = (undo >>> 8) & 0xF;
 
-        ChessPiece rook = board.getPiece(rookPos);
-        if (rook == null || rook.getPieceType() != ChessPiece.PieceType.ROOK) {
-            return false;
+        switchTurns();
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber--;
+        }
+        castlingRights = (undo >>> 4) & 0xF;
+        enPassantSquare = ((undo >>> 12) & 0x7F) - 1;
+        halfmoveClock = (undo >>> 19) & MAX_HALFMOVE_CLOCK;
+
+        board.removePiece(to, board.pieceAt(to));
+        board.putPiece(from, moving);
+        if (captured != 0xF) {
+            board.putPiece(capturedSquare(move), captured);
         }
 
-        if (teamColor == TeamColor.WHITE) {
-            if (whiteKingMoved || whiteKingsideRookMoved) {
-                return false;
-            }
-            if (isInCheckHelper(teamColor, board)) {
-                return false;
-            }
-            if (board.getPiece(new ChessPosition(1, 6)) != null ||
-                    board.getPiece(new ChessPosition(1, 7)) != null) {
-                return false;
-            }
-            if (isSquareAttacked(new ChessPosition(1, 6), TeamColor.BLACK, board) ||
-                    isSquareAttacked(new ChessPosition(1, 7), TeamColor.BLACK, board)){
-                return false;
-            }
-            return true;
-        } else {
-            if (blackKingMoved || blackKingsideRookMoved) {
-                return false;
-            }
-            if (isInCheckHelper(teamColor, board)) {
-                return false;
-            }
-            if (board.getPiece(new ChessPosition(8, 6)) != null ||
-                    board.getPiece(new ChessPosition(8, 7)) != null) {
-                return false;
-            }
-            if (isSquareAttacked(new ChessPosition(8, 6), TeamColor.WHITE, board) ||
-                    isSquareAttacked(new ChessPosition(8, 7), TeamColor.WHITE, board)) {
-                return false;
-            }
-            return true;
+        if (PackedMove.hasFlag(move, PackedMove.CASTLE)) {
+            int rook = moving - ChessPiece.PieceType.KING.ordinal() + ChessPiece.PieceType.ROOK.ordinal();
+            board.removePiece(castleRookTo(from, to), rook);
+            board.putPiece(castleRookFrom(from, to), rook);
         }
     }
 
     /**
-     * Determines if a king can castle queenside
+     * Makes the next move of the history again after {@link #undoMove()}, ending
+     * the game if that move ended it
      *
-     * @param teamColor color of team
-     * @param board board to implement test on
-     * @return true if the king can castle queenside false otherwise
+     * @throws IllegalStateException if there is no move to redo
      */
-    private boolean canCastleQueenside(TeamColor teamColor, ChessBoard board) {
-        ChessPosition rookPos = (teamColor == TeamColor.WHITE)
-                ? new ChessPosition(1, 1) : new ChessPosition(8, 1);
-
-        ChessPiece rook = board.getPiece(rookPos);
-        if (rook == null || rook.getPieceType() != ChessPiece.PieceType.ROOK) {
-            return false;
+    public void redoMove() {
+        if (historyLength == historyEnd) {
+            throw new IllegalStateException("No move to redo");
         }
+        applyMove(moveHistory[historyLength]);
+        updateTermination();
+    }
 
-        if (teamColor == TeamColor.WHITE) {
-            if (whiteKingMoved || whiteQueensideRookMoved) {
-                return false;
-            }
-            if (isInCheckHelper(teamColor, board)) {
-                return false;
-            }
-            if (board.getPiece(new ChessPosition(1, 2)) != null ||
-                    board.getPiece(new ChessPosition(1, 3)) != null ||
-                    board.getPiece(new ChessPosition(1, 4)) != null) {
-                return false;
-            }
-            if (isSquareAttacked(new ChessPosition(1, 3), TeamColor.BLACK, board) ||
-                    isSquareAttacked(new ChessPosition(1, 4), TeamColor.BLACK, board)) {
-                return false;
-            }
-            return true;
-        } else {
-            if (blackKingMoved || blackQueensideRookMoved) {
-                return false;
-            }
-            if (isInCheckHelper(teamColor, board)) {
-                return false;
-            }
-            if (board.getPiece(new ChessPosition(8, 2)) != null ||
-                    board.getPiece(new ChessPosition(8, 3)) != null ||
-                    board.getPiece(new ChessPosition(8, 4)) != null) {
-                return false;
-            }
-            if (isSquareAttacked(new ChessPosition(8, 3), TeamColor.WHITE, board) ||
-                    isSquareAttacked(new ChessPosition(8, 4), TeamColor.WHITE, board)) {
-                return false;
-            }
-            return true;
-        }
+    /**
+     * @return the number of legal moves of the team to move, which {@link #legalMove} reads from the move cache
+     */
+    int legalMoveCount() {
+        return cachedLegalMoves(teamTurn);
+    }
+
+    /**
+     * @param index an index below {@link #legalMoveCount()}
+     * @return that legal move of the team to move, as a packed move
+     */
+    int legalMove(int index) {
+        return cachedMoves[Bitboards.colorIndex(teamTurn)][index];
     }
 
     /**
-     * loops through each square on a chess board and finds if other pieces can attack it
+     * Tries a legal move in place and takes it back, leaving the history, including
+     * any moves to redo, and the game result exactly as they were
      *
-     * @param square the square to check
-     * @param attackingTeam the team color opposing the player whose turn it is
-     * @param board the board to test
-     * @return true if under attack false otherwise
-     */
-    private boolean isSquareAttacked(ChessPosition square, TeamColor attackingTeam, ChessBoard board) {
-        for (int r = 1; r <= 8; r++) {
-            for (int c = 1; c <= 8; c++) {
-                ChessPosition attackerPos = new ChessPosition(r, c);
-                ChessPiece piece = board.getPiece(attackerPos);
-                if (isAttackedByPiece(square, attackingTeam, piece, attackerPos, board)) {
-                    return true;
-                }
-            }
+     * @param move a legal packed move of the team to move
+     * @return {@link #MATES} if the move checkmates, {@link #CHECKS} if it checks, otherwise 0
+     */
+    int checkAfter(int move) {
+        int end = historyEnd;
+        // the probe is recorded where the next move to redo is kept, so that move is saved first
+        boolean redo = historyLength < end;
+        int redoMove = redo ? moveHistory[historyLength] : 0;
+        int redoUndo = redo ? undoHistory[historyLength] : 0;
+        long redoKey = redo ? positionHistory[historyLength] : 0;
+        applyMove(move);
+        int result = 0;
+        if (isInCheck(teamTurn)) {
+            result = hasAvailableMoves(teamTurn) ? CHECKS : MATES;
         }
-        return false;
+        retractMove();
+        if (redo) {
+            moveHistory[historyLength] = redoMove;
+            undoHistory[historyLength] = redoUndo;
+            positionHistory[historyLength] = redoKey;
+        }
+        historyEnd = end;
+        return result;
+    }
+
+    /**
+     * @return the last move made, as a packed move, or {@link PackedMove#NONE} if there is none
+     */
+    int lastMove() {
+        return historyLength == 0 ? PackedMove.NONE : moveHistory[historyLength - 1];
+    }
+
+    /**
+     * Makes the next move of the history again without changing the game result,
+     * reversing {@link #retractMove()}
+     */
+    void replayMove() {
+        int end = historyEnd;
+        applyMove(moveHistory[historyLength]);
+        historyEnd = end;
+    }
+
+    /**
+     * @return true if there is a move in the history to undo
+     */
+    public boolean canUndo() {
+        return historyLength > 0;
     }
 
     /**
-     * given a square checks if any piece can attack it
+     * @return true if a move was undone and can be made again
+     */
+    public boolean canRedo() {
+        return historyLength < historyEnd;
+    }
+
+    /**
+     * Gets the moves played to reach the current position, for replaying or auditing a game
      *
-     * @param square the square to check
-     * @param attackingTeam the team color opposing the player whose turn it is
-     * @param board the board to test
-     * @return true if under attack false otherwise
-     */
-    private static boolean isAttackedByPiece(
-            ChessPosition square,
-            TeamColor attackingTeam,
-            ChessPiece piece,
-            ChessPosition attackerPos,
-            ChessBoard board) {
-
-        if (piece != null && piece.getTeamColor() == attackingTeam) {
-            for (ChessMove move : piece.pieceMoves(board, attackerPos)) {
-                if (move.getEndPosition().equals(square)) {
-                    return true;
-                }
-            }
+     * @return the moves in the order they were made
+     */
+    public List<ChessMove> getMoveHistory() {
+        List<ChessMove> moves = new ArrayList<>(historyLength);
+        for (int i = 0; i < historyLength; i++) {
+            moves.add(PackedMove.toChessMove(moveHistory[i]));
+        }
+        return moves;
+    }
+
+    /**
+     * Records a move, its undo word and the key of the position it was made from
+     * at the current point of the history, growing the history when needed
+     */
+    private void pushHistory(int move, int undo, long key) {
+        if (moveHistory == null) {
+            moveHistory = new int[INITIAL_HISTORY];
+            undoHistory = new int[INITIAL_HISTORY];
+            positionHistory = new long[INITIAL_HISTORY];
+        } else if (historyLength == moveHistory.length) {
+            moveHistory = Arrays.copyOf(moveHistory, historyLength * 2);
+            undoHistory = Arrays.copyOf(undoHistory, historyLength * 2);
+            positionHistory = Arrays.copyOf(positionHistory, historyLength * 2);
+        }
+        moveHistory[historyLength] = move;
+        undoHistory[historyLength] = undo;
+        positionHistory[historyLength] = key;
+        historyLength++;
+    }
+
+    /**
+     * @return the square of the piece a move captures, which for en passant is beside the end square
+     */
+    private static int capturedSquare(int move) {
+        int to = PackedMove.to(move);
+        if (PackedMove.hasFlag(move, PackedMove.EN_PASSANT)) {
+            return Bitboards.square(Bitboards.row(PackedMove.from(move)), Bitboards.col(to));
         }
-        return false;
+        return to;
+    }
+
+    /**
+     * Finds the en passant target left by a pawn passing over a square
+     *
+     * @param passed the square the pawn passed over
+     * @param color the color index of the pawn that moved
+     * @return the passed square if an enemy pawn could capture onto it,
+     * otherwise {@link Bitboards#NO_SQUARE}
+     */
+    private int enPassantTarget(int passed, int color) {
+        long enemyPawns = board.getPieceBitboard(Bitboards.pieceIndex(color ^ 1, ChessPiece.PieceType.PAWN));
+        return (AttackTables.pawnAttacks(color, passed) & enemyPawns) != 0 ? passed : Bitboards.NO_SQUARE;
+    }
+
+    private static int castleRookFrom(int kingFrom, int kingTo) {
+        return kingTo > kingFrom ? kingFrom + 3 : kingFrom - 4;
+    }
+
+    private static int castleRookTo(int kingFrom, int kingTo) {
+        return kingTo > kingFrom ? kingFrom + 1 : kingFrom - 1;
     }
 
     /**
@@ -400,38 +872,20 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        return isInCheckHelper(teamColor, this.board);
+        return isInCheckHelper(teamColor);
     }
 
     /**
-     * Determines if the given team is in check for a given chess board
+     * Determines if the given team is in check, starting from the king square
+     * the board keeps up to date
      *
      * @param teamColor which team to check for check
-     * @param board the board to check
      * @return True if the specified team is in check
      */
-    private boolean isInCheckHelper(TeamColor teamColor, ChessBoard board) {
-        // locate the king
-        ChessPosition kingPos = null;
-        for (int r = 1; r <= 8; r++) {
-            for (int c = 1; c <= 8; c++) {
-                ChessPosition square = new ChessPosition(r, c);
-                ChessPiece piece = board.getPiece(square);
-                if (
-                        piece != null &&
-                                piece.getPieceType() == ChessPiece.PieceType.KING &&
-                                piece.getTeamColor() == teamColor
-                ) {
-                    kingPos = square;
-                    break;
-                }
-            }
-            if (kingPos != null) {
-                break;
-            }
-        }
-        TeamColor enemyColor = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-        return isSquareAttacked(kingPos, enemyColor, board);
+    private boolean isInCheckHelper(TeamColor teamColor) {
+        int color = Bitboards.colorIndex(teamColor);
+        int kingSquare = board.getKingSquare(color);
+        return kingSquare != Bitboards.NO_SQUARE && board.isSquareAttacked(kingSquare, color ^ 1);
     }
 
     /**
@@ -462,22 +916,15 @@ public class ChessGame {
      * @return True if the specified team has at least one available move, otherwise false
      */
     private boolean hasAvailableMoves(TeamColor teamColor) {
-        for (int r = 1; r <= 8; r++) {
-            for (int c = 1; c <= 8; c++) {
-                ChessPosition square = new ChessPosition(r, c);
-                ChessPiece piece = board.getPiece(square);
-                if (piece != null && piece.getTeamColor() == teamColor) {
-                    if (!validMoves(square).isEmpty()) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        return cachedLegalMoves(teamColor) > 0;
     }
 
     public void setBoard(ChessBoard board) {
         this.board = board;
+        this.enPassantSquare = Bitboards.NO_SQUARE;
+        this.halfmoveClock = 0;
+        this.historyLength = 0;
+        this.historyEnd = 0;
     }
 
     public ChessBoard getBoard() {
@@ -490,11 +937,12 @@ public class ChessGame {
             return false;
         }
         ChessGame chessGame = (ChessGame) o;
-        return Objects.equals(board, chessGame.board) && teamTurn == chessGame.teamTurn;
+        return Objects.equals(board, chessGame.board) && teamTurn == chessGame.teamTurn
+                && enPassantSquare == chessGame.enPassantSquare;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(board, teamTurn);
+        return Objects.hash(board.getPieceKey(), teamTurn, enPassantSquare);
     }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Stores a {@link ChessGame} as JSON field by field, and reads games stored before
+ * castling rights were kept as one field.
+ * <p>
+ * Those games recorded instead whether each king and rook had moved. When a game
+ * has the old flags and no castling rights, the rights are worked out from the
+ * flags, so a king or rook that has already moved still cannot castle.
+ */
+final class ChessGameAdapter implements TypeAdapterFactory {
+    private static final String CASTLING_RIGHTS = "castlingRights";
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != ChessGame.class) {
+            return null;
+        }
+        TypeAdapter<ChessGame> fields = gson.getDelegateAdapter(this, TypeToken.get(ChessGame.class));
+        TypeAdapter<JsonElement> elements = gson.getAdapter(JsonElement.class);
+        return (TypeAdapter<T>) new TypeAdapter<ChessGame>() {
+            @Override
+            public void write(JsonWriter out, ChessGame game) throws IOException {
+                fields.write(out, game);
+            }
+
+            @Override
+            public ChessGame read(JsonReader in) throws IOException {
+                JsonElement json = elements.read(in);
+                if (json.isJsonObject()) {
+                    JsonObject game = json.getAsJsonObject();
+                    if (!game.has(CASTLING_RIGHTS) && game.has("whiteKingMoved")) {
+                        game.addProperty(CASTLING_RIGHTS, castlingRights(game));
+                    }
+                }
+                return fields.fromJsonTree(json);
+            }
+        };
+    }
+
+    /**
+     * @return the castling rights left by the old flags
+     */
+    private static int castlingRights(JsonObject game) {
+        int rights = ChessGame.ALL_CASTLING;
+        if (moved(game, "whiteKingMoved")) {
+            rights &= ~(ChessGame.WHITE_KINGSIDE | ChessGame.WHITE_QUEENSIDE);
+        }
+        if (moved(game, "blackKingMoved")) {
+            rights &= ~(ChessGame.BLACK_KINGSIDE | ChessGame.BLACK_QUEENSIDE);
+        }
+        if (moved(game, "whiteKingsideRookMoved")) {
+            rights &= ~ChessGame.WHITE_KINGSIDE;
+        }
+        if (moved(game, "whiteQueensideRookMoved")) {
+            rights &= ~ChessGame.WHITE_QUEENSIDE;
+        }
+        if (moved(game, "blackKingsideRookMoved")) {
+            rights &= ~ChessGame.BLACK_KINGSIDE;
+        }
+        if (moved(game, "blackQueensideRookMoved")) {
+            rights &= ~ChessGame.BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    private static boolean moved(JsonObject game, String flag) {
+        JsonElement value = game.get(flag);
+        return value != null && !value.isJsonNull() && value.getAsBoolean();
+    }
+}
@@ -13,6 +13,17 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPiece {
+    private static final ChessPiece[][] PIECES =
+            new ChessPiece[ChessGame.TeamColor.values().length][PieceType.values().length];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[color.ordinal()][type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
 
@@ -21,6 +32,18 @@ public class ChessPiece {
         this.type = type;
     }
 
+    /**
+     * Gets the shared instance of a piece. Pieces are immutable, so the engine
+     * uses these instead of allocating a new piece each time.
+     *
+     * @param pieceColor the team the piece belongs to
+     * @param type the type of the piece
+     * @return the canonical piece
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[pieceColor.ordinal()][type.ordinal()];
+    }
+
     /**
      * The various different chess piece options
      */
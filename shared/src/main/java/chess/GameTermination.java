@@ -0,0 +1,27 @@
+package chess;
+
+/**
+ * The reasons a chess game can end
+ */
+public enum GameTermination {
+    CHECKMATE(false),
+    RESIGNATION(false),
+    STALEMATE(true),
+    THREEFOLD_REPETITION(true),
+    FIFTY_MOVE_RULE(true),
+    SEVENTY_FIVE_MOVE_RULE(true),
+    INSUFFICIENT_MATERIAL(true);
+
+    private final boolean draw;
+
+    GameTermination(boolean draw) {
+        this.draw = draw;
+    }
+
+    /**
+     * @return true if a game ending this way is drawn, false if one team wins
+     */
+    public boolean isDraw() {
+        return draw;
+    }
+}
@@ -0,0 +1,286 @@
+package chess;
+
+import chess.bitboard.AttackTables;
+import chess.bitboard.Bitboards;
+import chess.bitboard.SlidingAttacks;
+
+/**
+ * Generates strictly legal moves for one side of a position.
+ * <p>
+ * The pieces giving check and the pieces pinned to their king are found once
+ * up front. Every other piece is then limited to the squares that resolve the
+ * check, each pinned piece is limited to its pin ray, and king moves are tested
+ * with the king lifted off the board, so no move ever has to be made to find
+ * out whether it is legal.
+ * <p>
+ * Moves are written as {@link PackedMove} ints into a caller-supplied buffer.
+ * A generator holds no state between calls and can be reused.
+ */
+final class MoveGenerator {
+    private static final long ALL_SQUARES = -1L;
+
+    private ChessBoard board;
+    private int us;
+    private int them;
+    private long own;
+    private long enemy;
+    private long occupied;
+    private int enPassantSquare;
+    private int[] moves;
+    private int count;
+
+    /**
+     * Writes every legal move for pieces on the requested squares into a buffer
+     *
+     * @param board the board to generate moves on
+     * @param color the color index of the side to generate moves for
+     * @param castlingRights the castling rights of the game
+     * @param enPassantSquare the square a pawn can capture en passant on, or {@link Bitboards#NO_SQUARE}
+     * @param fromMask only pieces on these squares have their moves generated
+     * @param buffer the buffer to write packed moves to, at least {@link ChessGame#MAX_MOVES} long
+     * @return the number of moves written
+     */
+    int generate(ChessBoard board, int color, int castlingRights, int enPassantSquare, long fromMask, int[] buffer) {
+        this.board = board;
+        this.us = color;
+        this.them = color ^ 1;
+        this.own = board.getColorBitboard(us);
+        this.enemy = board.getColorBitboard(them);
+        this.occupied = board.getOccupied();
+        this.enPassantSquare = enPassantSquare;
+        this.moves = buffer;
+        this.count = 0;
+
+        generateMoves(castlingRights, fromMask);
+
+        this.board = null;
+        this.moves = null;
+        return count;
+    }
+
+    private void generateMoves(int castlingRights, long fromMask) {
+        int king = board.getKingSquare(us);
+        long checkMask = ALL_SQUARES;
+        long pinned = 0L;
+
+        if (king != Bitboards.NO_SQUARE) {
+            long checkers = board.attackersTo(king, them, occupied);
+            if ((fromMask & Bitboards.bit(king)) != 0) {
+                addKingMoves(king, castlingRights, checkers == 0);
+            }
+            // in double check only the king can move
+            if (Long.bitCount(checkers) > 1) {
+                return;
+            }
+            if (checkers != 0) {
+                int checker = Long.numberOfTrailingZeros(checkers);
+                checkMask = SlidingAttacks.between(king, checker) | checkers;
+            }
+            pinned = addPinnedMoves(king, checkMask, fromMask);
+        }
+
+        long kings = board.getPieceBitboard(Bitboards.pieceIndex(us, ChessPiece.PieceType.KING));
+        long movers = own & fromMask & ~pinned & ~kings;
+        while (movers != 0) {
+            int from = Long.numberOfTrailingZeros(movers);
+            movers &= movers - 1;
+            addPieceMoves(from, checkMask);
+        }
+    }
+
+    /**
+     * Finds every piece pinned to the king and adds its moves along the pin ray
+     *
+     * @param king the square of the king
+     * @param checkMask the squares that resolve any current check
+     * @param fromMask only pinned pieces on these squares have their moves generated
+     * @return the bitboard of pinned pieces
+     */
+    private long addPinnedMoves(int king, long checkMask, long fromMask) {
+        int base = them * Bitboards.PIECE_TYPES;
+        long queens = board.getPieceBitboard(base + ChessPiece.PieceType.QUEEN.ordinal());
+        long rookMovers = queens | board.getPieceBitboard(base + ChessPiece.PieceType.ROOK.ordinal());
+        long bishopMovers = queens | board.getPieceBitboard(base + ChessPiece.PieceType.BISHOP.ordinal());
+
+        // enemy sliders that would attack the king if our own pieces were removed
+        long pinners = (SlidingAttacks.rookAttacks(king, enemy) & rookMovers)
+                | (SlidingAttacks.bishopAttacks(king, enemy) & bishopMovers);
+
+        long pinned = 0L;
+        while (pinners != 0) {
+            int pinner = Long.numberOfTrailingZeros(pinners);
+            pinners &= pinners - 1;
+
+            long ray = SlidingAttacks.between(king, pinner);
+            long blockers = ray & occupied;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                pinned |= blockers;
+                if ((blockers & fromMask) != 0) {
+                    addPieceMoves(Long.numberOfTrailingZeros(blockers), checkMask & (ray | Bitboards.bit(pinner)));
+                }
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * Adds the moves of a non-king piece that land on the target mask
+     *
+     * @param from the square of the piece
+     * @param targetMask the squares the piece is allowed to move to
+     */
+    private void addPieceMoves(int from, long targetMask) {
+        int type = Bitboards.typeOf(board.pieceAt(from));
+        long targets;
+        if (type == ChessPiece.PieceType.PAWN.ordinal()) {
+            addPawnMoves(from, targetMask);
+            return;
+        } else if (type == ChessPiece.PieceType.KNIGHT.ordinal()) {
+            targets = AttackTables.knightAttacks(from);
+        } else if (type == ChessPiece.PieceType.BISHOP.ordinal()) {
+            targets = SlidingAttacks.bishopAttacks(from, occupied);
+        } else if (type == ChessPiece.PieceType.ROOK.ordinal()) {
+            targets = SlidingAttacks.rookAttacks(from, occupied);
+        } else {
+            targets = SlidingAttacks.queenAttacks(from, occupied);
+        }
+        addMoves(from, targets & ~own & targetMask);
+    }
+
+    /**
+     * Adds the pushes and captures of a pawn that land on the target mask
+     *
+     * @param from the square of the pawn
+     * @param targetMask the squares the pawn is allowed to move to
+     */
+    private void addPawnMoves(int from, long targetMask) {
+        int forward = (us == Bitboards.WHITE) ? 8 : -8;
+        int startRow = (us == Bitboards.WHITE) ? 2 : 7;
+
+        int single = from + forward;
+        if (single >= 0 && single < 64 && (occupied & Bitboards.bit(single)) == 0) {
+            if ((targetMask & Bitboards.bit(single)) != 0) {
+                addPawnMove(from, single);
+            }
+            int twice = single + forward;
+            if (Bitboards.row(from) == startRow && (occupied & Bitboards.bit(twice)) == 0
+                    && (targetMask & Bitboards.bit(twice)) != 0) {
+                moves[count++] = PackedMove.of(from, twice, PackedMove.DOUBLE_PUSH);
+            }
+        }
+
+        long captures = AttackTables.pawnAttacks(us, from) & enemy & targetMask;
+        while (captures != 0) {
+            int to = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+            addPawnMove(from, to);
+        }
+
+        if (enPassantSquare != Bitboards.NO_SQUARE
+                && (AttackTables.pawnAttacks(us, from) & Bitboards.bit(enPassantSquare)) != 0) {
+            addEnPassant(from);
+        }
+    }
+
+    /**
+     * Adds an en passant capture if it does not leave the king attacked. Two
+     * pawns leave the row at once, which can uncover a rook along that row that
+     * no pin is registered for, so the capture is tested on the resulting
+     * occupancy instead of against the check and pin masks.
+     *
+     * @param from the square of the capturing pawn
+     */
+    private void addEnPassant(int from) {
+        int captured = Bitboards.square(Bitboards.row(from), Bitboards.col(enPassantSquare));
+        int king = board.getKingSquare(us);
+        if (king != Bitboards.NO_SQUARE) {
+            long after = (occupied ^ Bitboards.bit(from) ^ Bitboards.bit(captured)) | Bitboards.bit(enPassantSquare);
+            if ((board.attackersTo(king, them, after) & ~Bitboards.bit(captured)) != 0) {
+                return;
+            }
+        }
+        moves[count++] = PackedMove.of(from, enPassantSquare, PackedMove.EN_PASSANT);
+    }
+
+    /**
+     * Adds a pawn move, expanding it to every promotion if it reaches the last row
+     */
+    private void addPawnMove(int from, int to) {
+        int row = Bitboards.row(to);
+        if (row == 1 || row == 8) {
+            moves[count++] = PackedMove.promotion(from, to, ChessPiece.PieceType.QUEEN);
+            moves[count++] = PackedMove.promotion(from, to, ChessPiece.PieceType.ROOK);
+            moves[count++] = PackedMove.promotion(from, to, ChessPiece.PieceType.BISHOP);
+            moves[count++] = PackedMove.promotion(from, to, ChessPiece.PieceType.KNIGHT);
+        } else {
+            moves[count++] = PackedMove.of(from, to, 0);
+        }
+    }
+
+    /**
+     * Adds king steps to squares that are not attacked, plus any legal castles
+     *
+     * @param king the square of the king
+     * @param castlingRights the castling rights of the game
+     * @param canCastle false if the king is in check
+     */
+    private void addKingMoves(int king, int castlingRights, boolean canCastle) {
+        // lift the king off the board so it cannot hide behind itself on a checking ray
+        long occupiedWithoutKing = occupied & ~Bitboards.bit(king);
+        long targets = AttackTables.kingAttacks(king) & ~own;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (board.attackersTo(to, them, occupiedWithoutKing) == 0) {
+                moves[count++] = PackedMove.of(king, to, 0);
+            }
+        }
+
+        if (canCastle) {
+            int kingside = (us == Bitboards.WHITE) ? ChessGame.WHITE_KINGSIDE : ChessGame.BLACK_KINGSIDE;
+            int queenside = (us == Bitboards.WHITE) ? ChessGame.WHITE_QUEENSIDE : ChessGame.BLACK_QUEENSIDE;
+            addCastle(king, castlingRights & kingside, 8);
+            addCastle(king, castlingRights & queenside, 1);
+        }
+    }
+
+    /**
+     * Adds a castle if the right is held, the king and rook are on their home
+     * squares, the squares between them are empty and the king does not pass
+     * through or land on an attacked square
+     *
+     * @param king the square of the king
+     * @param right the castling right, or 0 if it has been lost
+     * @param rookCol the column of the castling rook, 1 or 8
+     */
+    private void addCastle(int king, int right, int rookCol) {
+        int row = (us == Bitboards.WHITE) ? 1 : 8;
+        if (right == 0 || king != Bitboards.square(row, 5)
+                || board.pieceAt(Bitboards.square(row, rookCol)) != Bitboards.pieceIndex(us, ChessPiece.PieceType.ROOK)) {
+            return;
+        }
+        int rook = Bitboards.square(row, rookCol);
+        if ((SlidingAttacks.between(king, rook) & occupied) != 0) {
+            return;
+        }
+
+        int step = (rookCol > 5) ? 1 : -1;
+        for (int to = king + step; to != king + 3 * step; to += step) {
+            if (board.attackersTo(to, them, occupied) != 0) {
+                return;
+            }
+        }
+        moves[count++] = PackedMove.of(king, king + 2 * step, PackedMove.CASTLE);
+    }
+
+    /**
+     * Adds a non-promoting move from a square to each square in a target bitboard
+     */
+    private void addMoves(int from, long targets) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves[count++] = PackedMove.of(from, to, 0);
+        }
+    }
+}
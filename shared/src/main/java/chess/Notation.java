@@ -0,0 +1,342 @@
+package chess;
+
+import chess.bitboard.Bitboards;
+
+/**
+ * Formats and parses moves in standard algebraic notation (SAN), such as
+ * "Nxe5+", "O-O" or "e8=Q#", and in the UCI long algebraic form, such as
+ * "e2e4" or "e7e8q".
+ * <p>
+ * SAN depends on the position: a piece letter and target square only name a
+ * move together with the other legal moves that could reach the same square.
+ * Both directions read the legal moves a {@link ChessGame} already caches for
+ * its position, and the check suffix is found by making the move in place and
+ * taking it back, so no boards are copied.
+ */
+public final class Notation {
+    private static final char[] PIECE_LETTERS = {'K', 'Q', 'B', 'N', 'R', 'P'};
+    private static final char[] PROMOTION_LETTERS = {'k', 'q', 'b', 'n', 'r', 'p'};
+
+    private Notation() {
+    }
+
+    /**
+     * @param move the move to format
+     * @return the move in UCI long algebraic notation, such as "e2e4" or "e7e8q"
+     */
+    public static String toUci(ChessMove move) {
+        StringBuilder sb = new StringBuilder(5);
+        appendSquare(sb, Bitboards.square(move.getStartPosition()));
+        appendSquare(sb, Bitboards.square(move.getEndPosition()));
+        if (move.getPromotionPiece() != null) {
+            sb.append(PROMOTION_LETTERS[move.getPromotionPiece().ordinal()]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param move a packed move
+     * @return the move in UCI long algebraic notation, such as "e2e4" or "e7e8q"
+     */
+    public static String toUci(int move) {
+        StringBuilder sb = new StringBuilder(5);
+        appendSquare(sb, PackedMove.from(move));
+        appendSquare(sb, PackedMove.to(move));
+        int promotion = PackedMove.promotionType(move);
+        if (promotion >= 0) {
+            sb.append(PROMOTION_LETTERS[promotion]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reads a move in UCI long algebraic notation. The move is not checked against
+     * any position.
+     *
+     * @param uci the move, such as "e2e4" or "e7e8q"
+     * @return the move it describes
+     * @throws InvalidMoveException if the text is not a UCI move
+     */
+    public static ChessMove parseUci(String uci) throws InvalidMoveException {
+        String text = uci.trim();
+        if (!isUci(text)) {
+            throw new InvalidMoveException("Not a UCI move: " + uci);
+        }
+        ChessPiece.PieceType promotion = null;
+        if (text.length() == 5) {
+            promotion = promotionType(Character.toLowerCase(text.charAt(4)));
+        }
+        return new ChessMove(position(text, 0), position(text, 2), promotion);
+    }
+
+    /**
+     * Formats a legal move of the team to move in standard algebraic notation
+     *
+     * @param game the position the move is made from
+     * @param move a legal move of the team to move
+     * @return the move in SAN, such as "Nbd7", "exd6", "O-O-O" or "e8=Q+"
+     * @throws InvalidMoveException if the move is not legal in the position
+     */
+    public static String toSan(ChessGame game, ChessMove move) throws InvalidMoveException {
+        int packed = game.findLegalMove(move);
+        if (packed == PackedMove.NONE) {
+            throw new InvalidMoveException("Illegal move: " + toUci(move));
+        }
+        return toSan(game, packed);
+    }
+
+    /**
+     * Formats the last move made in a game in standard algebraic notation. The move
+     * is taken back and made again in place, leaving the game exactly as it was.
+     *
+     * @param game the game the move was made in
+     * @return the last move in SAN, or null if no moves have been made
+     */
+    public static String lastMoveToSan(ChessGame game) {
+        int move = game.lastMove();
+        if (move == PackedMove.NONE) {
+            return null;
+        }
+        game.retractMove();
+        try {
+            return toSan(game, move);
+        } finally {
+            game.replayMove();
+        }
+    }
+
+    /**
+     * Formats a legal packed move of the team to move in standard algebraic notation
+     */
+    static String toSan(ChessGame game, int move) {
+        StringBuilder sb = new StringBuilder(8);
+        ChessBoard board = game.getBoard();
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int type = Bitboards.typeOf(board.pieceAt(from));
+        boolean capture = board.pieceAt(to) != Bitboards.NO_PIECE || PackedMove.hasFlag(move, PackedMove.EN_PASSANT);
+
+        if (PackedMove.hasFlag(move, PackedMove.CASTLE)) {
+            sb.append(to > from ? "O-O" : "O-O-O");
+        } else if (type == ChessPiece.PieceType.PAWN.ordinal()) {
+            if (capture) {
+                sb.append((char) ('a' + (from & 7))).append('x');
+            }
+            appendSquare(sb, to);
+            int promotion = PackedMove.promotionType(move);
+            if (promotion >= 0) {
+                sb.append('=').append(PIECE_LETTERS[promotion]);
+            }
+        } else {
+            sb.append(PIECE_LETTERS[type]);
+            appendDisambiguation(sb, game, move, type);
+            if (capture) {
+                sb.append('x');
+            }
+            appendSquare(sb, to);
+        }
+
+        int check = game.checkAfter(move);
+        if (check == ChessGame.MATES) {
+            sb.append('#');
+        } else if (check == ChessGame.CHECKS) {
+            sb.append('+');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Adds the file, rank or both of the start square when another piece of the
+     * same type could also move to the target square
+     */
+    private static void appendDisambiguation(StringBuilder sb, ChessGame game, int move, int type) {
+        ChessBoard board = game.getBoard();
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        int count = game.legalMoveCount();
+        for (int i = 0; i < count; i++) {
+            int other = game.legalMove(i);
+            int otherFrom = PackedMove.from(other);
+            if (PackedMove.to(other) == to && otherFrom != from
+                    && Bitboards.typeOf(board.pieceAt(otherFrom)) == type) {
+                ambiguous = true;
+                sameFile |= (otherFrom & 7) == (from & 7);
+                sameRank |= (otherFrom >>> 3) == (from >>> 3);
+            }
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            sb.append((char) ('a' + (from & 7)));
+        } else if (!sameRank) {
+            sb.append((char) ('1' + (from >>> 3)));
+        } else {
+            appendSquare(sb, from);
+        }
+    }
+
+    /**
+     * Reads a move in standard algebraic notation and finds the legal move of the
+     * team to move that it names. Capture marks, check and mate suffixes and
+     * annotations such as "!?" are optional, and castling may be written with
+     * zeros.
+     *
+     * @param game the position the move is made from
+     * @param san the move, such as "Nf3", "exd5", "O-O" or "e8=Q"
+     * @return the legal move it names
+     * @throws InvalidMoveException if the text is malformed, names no legal move, or is ambiguous
+     */
+    public static ChessMove parseSan(ChessGame game, String san) throws InvalidMoveException {
+        String text = san.trim();
+        int end = text.length();
+        while (end > 0 && "+#!?".indexOf(text.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        text = text.substring(0, end);
+
+        if (text.equals("O-O") || text.equals("0-0")) {
+            return castle(game, true, san);
+        }
+        if (text.equals("O-O-O") || text.equals("0-0-0")) {
+            return castle(game, false, san);
+        }
+
+        int promotion = -1;
+        int equals = text.indexOf('=');
+        if (equals >= 0) {
+            if (equals != text.length() - 2) {
+                throw new InvalidMoveException("Not a SAN move: " + san);
+            }
+            promotion = pieceType(text.charAt(equals + 1), san);
+            text = text.substring(0, equals);
+        } else if (text.length() >= 3 && "QRBN".indexOf(text.charAt(text.length() - 1)) >= 0
+                && Character.isDigit(text.charAt(text.length() - 2))) {
+            promotion = pieceType(text.charAt(text.length() - 1), san);
+            text = text.substring(0, text.length() - 1);
+        }
+
+        if (text.length() < 2 || !isSquare(text, text.length() - 2)) {
+            throw new InvalidMoveException("Not a SAN move: " + san);
+        }
+        int to = Bitboards.square(text.charAt(text.length() - 1) - '0', text.charAt(text.length() - 2) - 'a' + 1);
+
+        int prefixEnd = text.length() - 2;
+        if (prefixEnd > 0 && (text.charAt(prefixEnd - 1) == 'x' || text.charAt(prefixEnd - 1) == ':')) {
+            prefixEnd--;
+        }
+        int i = 0;
+        int type = ChessPiece.PieceType.PAWN.ordinal();
+        if (prefixEnd > 0 && Character.isUpperCase(text.charAt(0))) {
+            type = pieceType(text.charAt(0), san);
+            i = 1;
+        }
+        int fromFile = -1;
+        int fromRank = -1;
+        for (; i < prefixEnd; i++) {
+            char c = text.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else {
+                throw new InvalidMoveException("Not a SAN move: " + san);
+            }
+        }
+
+        ChessBoard board = game.getBoard();
+        int found = PackedMove.NONE;
+        int count = game.legalMoveCount();
+        for (int m = 0; m < count; m++) {
+            int move = game.legalMove(m);
+            int from = PackedMove.from(move);
+            if (PackedMove.to(move) != to || PackedMove.promotionType(move) != promotion
+                    || Bitboards.typeOf(board.pieceAt(from)) != type
+                    || (fromFile >= 0 && (from & 7) != fromFile) || (fromRank >= 0 && (from >>> 3) != fromRank)) {
+                continue;
+            }
+            if (found != PackedMove.NONE) {
+                throw new InvalidMoveException("Ambiguous move: " + san);
+            }
+            found = move;
+        }
+        if (found == PackedMove.NONE) {
+            throw new InvalidMoveException("Illegal move: " + san);
+        }
+        return PackedMove.toChessMove(found);
+    }
+
+    /**
+     * Reads a move in either UCI long algebraic notation or SAN, whichever the
+     * text is written in, and checks that it is legal for the team to move
+     *
+     * @param game the position the move is made from
+     * @param text the move, such as "e2e4", "e7e8q", "Nf3" or "O-O"
+     * @return the legal move it names
+     * @throws InvalidMoveException if the text names no legal move
+     */
+    public static ChessMove parseMove(ChessGame game, String text) throws InvalidMoveException {
+        String trimmed = text.trim();
+        if (isUci(trimmed)) {
+            ChessMove move = parseUci(trimmed);
+            if (game.findLegalMove(move) == PackedMove.NONE) {
+                throw new InvalidMoveException("Illegal move: " + text);
+            }
+            return move;
+        }
+        return parseSan(game, trimmed);
+    }
+
+    private static ChessMove castle(ChessGame game, boolean kingside, String san) throws InvalidMoveException {
+        int count = game.legalMoveCount();
+        for (int i = 0; i < count; i++) {
+            int move = game.legalMove(i);
+            if (PackedMove.hasFlag(move, PackedMove.CASTLE) && (PackedMove.to(move) > PackedMove.from(move)) == kingside) {
+                return PackedMove.toChessMove(move);
+            }
+        }
+        throw new InvalidMoveException("Illegal move: " + san);
+    }
+
+    private static boolean isUci(String text) {
+        if ((text.length() != 4 && text.length() != 5) || !isSquare(text, 0) || !isSquare(text, 2)) {
+            return false;
+        }
+        return text.length() == 4 || "qrbnQRBN".indexOf(text.charAt(4)) >= 0;
+    }
+
+    private static boolean isSquare(String text, int i) {
+        char file = text.charAt(i);
+        char rank = text.charAt(i + 1);
+        return file >= 'a' && file <= 'h' && rank >= '1' && rank <= '8';
+    }
+
+    private static ChessPosition position(String text, int i) {
+        return ChessPosition.of(text.charAt(i + 1) - '0', text.charAt(i) - 'a' + 1);
+    }
+
+    private static int pieceType(char letter, String san) throws InvalidMoveException {
+        for (int type = 0; type < PIECE_LETTERS.length; type++) {
+            if (PIECE_LETTERS[type] == letter) {
+                return type;
+            }
+        }
+        throw new InvalidMoveException("Not a SAN move: " + san);
+    }
+
+    private static ChessPiece.PieceType promotionType(char letter) {
+        return switch (letter) {
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            default -> ChessPiece.PieceType.KNIGHT;
+        };
+    }
+
+    private static void appendSquare(StringBuilder sb, int square) {
+        sb.append((char) ('a' + (square & 7))).append((char) ('1' + (square >>> 3)));
+    }
+}
@@ -0,0 +1,107 @@
+package chess;
+
+import chess.bitboard.Bitboards;
+
+/**
+ * Encodes a move as a single int so the engine can generate and store moves
+ * without allocating.
+ * <p>
+ * Bits 0-5 hold the start square, bits 6-11 the end square, bits 12-14 the
+ * promotion piece type ordinal plus one (0 when not promoting) and the bits
+ * above those hold the move flags. {@link ChessMove} objects are only built at
+ * the API boundary with {@link #toChessMove}.
+ */
+public final class PackedMove {
+    public static final int NONE = 0;
+
+    public static final int CASTLE = 1 << 15;
+    public static final int DOUBLE_PUSH = 1 << 16;
+    public static final int EN_PASSANT = 1 << 17;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int PROMOTION_MASK = 0x7;
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    /**
+     * @param from the start square index
+     * @param to the end square index
+     * @param flags any combination of the move flags
+     * @return the packed move
+     */
+    public static int of(int from, int to, int flags) {
+        return from | (to << 6) | flags;
+    }
+
+    /**
+     * @param from the start square index
+     * @param to the end square index
+     * @param promotion the type a pawn promotes to
+     * @return the packed promotion move
+     */
+    public static int promotion(int from, int to, ChessPiece.PieceType promotion) {
+        return from | (to << 6) | ((promotion.ordinal() + 1) << PROMOTION_SHIFT);
+    }
+
+    /**
+     * @return the start square index of a packed move
+     */
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * @return the end square index of a packed move
+     */
+    public static int to(int move) {
+        return (move >>> 6) & SQUARE_MASK;
+    }
+
+    /**
+     * @return the ordinal of the promotion piece type, or -1 if the move is not a promotion
+     */
+    public static int promotionType(int move) {
+        return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) - 1;
+    }
+
+    /**
+     * @return the promotion piece type, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotionPiece(int move) {
+        int type = promotionType(move);
+        return type < 0 ? null : PIECE_TYPES[type];
+    }
+
+    /**
+     * @return true if the move has the given flag set
+     */
+    public static boolean hasFlag(int move, int flag) {
+        return (move & flag) != 0;
+    }
+
+    /**
+     * Builds the public representation of a packed move
+     *
+     * @param move the packed move
+     * @return the equivalent ChessMove
+     */
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(Bitboards.position(from(move)), Bitboards.position(to(move)), promotionPiece(move));
+    }
+
+    /**
+     * Determines if a packed move describes the same move as a ChessMove
+     *
+     * @param move the packed move
+     * @param chessMove the move to compare against
+     * @return true if the squares and promotion piece match
+     */
+    public static boolean matches(int move, ChessMove chessMove) {
+        return from(move) == Bitboards.square(chessMove.getStartPosition())
+                && to(move) == Bitboards.square(chessMove.getEndPosition())
+                && promotionPiece(move) == chessMove.getPromotionPiece();
+    }
+}
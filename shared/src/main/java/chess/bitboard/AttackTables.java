@@ -0,0 +1,78 @@
+package chess.bitboard;
+
+/**
+ * Attack masks for the non-sliding pieces, computed once when the class loads.
+ * <p>
+ * Each table is indexed by square and holds the bitboard of squares a piece on
+ * that square attacks, regardless of what occupies them.
+ */
+public final class AttackTables {
+    private static final int[][] KNIGHT_OFFSETS = {
+            {2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}
+    };
+    private static final int[][] KING_OFFSETS = {
+            {1, 1}, {1, -1}, {-1, 1}, {-1, -1}, {1, 0}, {0, 1}, {-1, 0}, {0, -1}
+    };
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = leaperAttacks(square, KNIGHT_OFFSETS);
+            KING_ATTACKS[square] = leaperAttacks(square, KING_OFFSETS);
+            PAWN_ATTACKS[Bitboards.WHITE][square] = leaperAttacks(square, new int[][]{{1, 1}, {1, -1}});
+            PAWN_ATTACKS[Bitboards.BLACK][square] = leaperAttacks(square, new int[][]{{-1, 1}, {-1, -1}});
+        }
+    }
+
+    private AttackTables() {
+    }
+
+    /**
+     * @return the squares a knight on the given square attacks
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares a king on the given square attacks
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Gets the diagonal capture squares of a pawn. Looking the table up with the
+     * opposite color instead gives the squares a pawn of this color could attack
+     * the given square from.
+     *
+     * @param color the color index of the pawn
+     * @param square the square of the pawn
+     * @return the squares the pawn attacks
+     */
+    public static long pawnAttacks(int color, int square) {
+        return PAWN_ATTACKS[color][square];
+    }
+
+    /**
+     * Builds the attack mask of a piece that jumps by fixed offsets
+     *
+     * @param square the square of the piece
+     * @param offsets row and column offsets the piece can jump by
+     * @return the bitboard of on-board target squares
+     */
+    private static long leaperAttacks(int square, int[][] offsets) {
+        long attacks = 0L;
+        for (int[] offset : offsets) {
+            int row = Bitboards.row(square) + offset[0];
+            int col = Bitboards.col(square) + offset[1];
+            if (Bitboards.isOnBoard(row, col)) {
+                attacks |= Bitboards.bit(Bitboards.square(row, col));
+            }
+        }
+        return attacks;
+    }
+}
@@ -0,0 +1,130 @@
+package chess.bitboard;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+/**
+ * Square and piece indexing shared by the bitboard engine.
+ * <p>
+ * Squares are numbered 0-63 starting at a1 (row 1, column 1) and moving
+ * across each row, so bit {@code n} of a bitboard represents square {@code n}.
+ * Pieces are numbered 0-11 as {@code color * 6 + type}, using the ordinals of
+ * {@link ChessGame.TeamColor} and {@link ChessPiece.PieceType}.
+ */
+public final class Bitboards {
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+    public static final int PIECE_TYPES = 6;
+    public static final int PIECE_COUNT = 12;
+    public static final int NO_PIECE = -1;
+    public static final int NO_SQUARE = -1;
+
+    private Bitboards() {
+    }
+
+    /**
+     * Converts a 1-based row and column to a square index
+     *
+     * @param row the row, 1 through 8
+     * @param col the column, 1 through 8
+     * @return the square index, 0 through 63
+     */
+    public static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * Converts a position to a square index
+     *
+     * @param position the position to convert
+     * @return the square index, 0 through 63
+     */
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * Converts a square index to a position
+     *
+     * @param square the square index, 0 through 63
+     * @return the position of the square
+     */
+    public static ChessPosition position(int square) {
+        return ChessPosition.of(row(square), col(square));
+    }
+
+    /**
+     * @return the algebraic name of a square index, such as "e4"
+     */
+    public static String squareName(int square) {
+        return "" + (char) ('a' + (square & 7)) + (char) ('1' + (square >>> 3));
+    }
+
+    /**
+     * @return the 1-based row of a square index
+     */
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-based column of a square index
+     */
+    public static int col(int square) {
+        return (square & 7) + 1;
+    }
+
+    /**
+     * @return a bitboard with only the given square set
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Determines if a 1-based row and column are within the bounds of a chess board
+     *
+     * @param row the row of the board
+     * @param col the column of the board
+     * @return true if the square is on the board
+     */
+    public static boolean isOnBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    /**
+     * @return the bitboard color index of a team
+     */
+    public static int colorIndex(ChessGame.TeamColor color) {
+        return color.ordinal();
+    }
+
+    /**
+     * @return the piece index for a color index and piece type
+     */
+    public static int pieceIndex(int color, ChessPiece.PieceType type) {
+        return color * PIECE_TYPES + type.ordinal();
+    }
+
+    /**
+     * @return the piece index for a piece
+     */
+    public static int pieceIndex(ChessPiece piece) {
+        return pieceIndex(colorIndex(piece.getTeamColor()), piece.getPieceType());
+    }
+
+    /**
+     * @return the color index of a piece index
+     */
+    public static int colorOf(int pieceIndex) {
+        return pieceIndex / PIECE_TYPES;
+    }
+
+    /**
+     * @return the piece type ordinal of a piece index
+     */
+    public static int typeOf(int pieceIndex) {
+        return pieceIndex % PIECE_TYPES;
+    }
+}
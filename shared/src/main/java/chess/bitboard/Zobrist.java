@@ -0,0 +1,68 @@
+package chess.bitboard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing of chess positions.
+ * <p>
+ * A position's key is the XOR of one key per piece on its square, plus keys for
+ * the side to move, the castling rights and the en passant file. Because XOR is
+ * its own inverse, a move updates the key by XORing out what changed and XORing
+ * in what replaced it. The keys come from a fixed seed so they are identical in
+ * every process, which keeps stored keys comparable.
+ */
+public final class Zobrist {
+    private static final long[][] PIECE_SQUARE = new long[Bitboards.PIECE_COUNT][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5A0B1C2D3E4F6071L);
+        for (long[] squares : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                squares[square] = random.nextLong();
+            }
+        }
+        for (int rights = 0; rights < CASTLING.length; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return the key for a piece index standing on a square
+     */
+    public static long piece(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex][square];
+    }
+
+    /**
+     * @param rights the 4-bit castling rights mask
+     * @return the key for that set of castling rights
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @param file the 0-based file of the en passant target square
+     * @return the key for an en passant capture being possible on that file
+     */
+    public static long enPassantFile(int file) {
+        return EN_PASSANT_FILE[file];
+    }
+
+    /**
+     * @return the key XORed in when black is to move
+     */
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+}
@@ -0,0 +1,227 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.bitboard.AttackTables;
+import chess.bitboard.Bitboards;
+import chess.bitboard.PieceSquareTables;
+import chess.bitboard.SlidingAttacks;
+
+/**
+ * Static evaluation of a position, in centipawns from the point of view of the
+ * team to move.
+ * <p>
+ * Each term is scored twice, once for the middlegame and once for the endgame, and
+ * the two are blended by the game phase, so a term can matter more as the pieces
+ * come off (passed pawns) or less (king shelter). The terms are:
+ * <ul>
+ *     <li>material and piece-square values, kept up to date by the board itself as
+ *     pieces move, so they cost nothing here</li>
+ *     <li>pawn structure: doubled, isolated and passed pawns, which depends only on
+ *     the pawns and so is cached in a {@link PawnHashTable}</li>
+ *     <li>king safety: the pawn shield in front of a castled king, open files beside
+ *     it, and enemy pieces attacking the squares around it</li>
+ * </ul>
+ * An Evaluation owns its pawn cache, so one should be used by one thread at a time.
+ */
+public final class Evaluation {
+
+    /**
+     * Piece values in centipawns, indexed by {@link chess.ChessPiece.PieceType} ordinal,
+     * for ordering captures. The king is never captured, so it has no material value.
+     */
+    public static final int[] PIECE_VALUES = {0, 900, 330, 320, 500, 100};
+
+    private static final int DEFAULT_PAWN_ENTRIES = 1 << 14;
+
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -25;
+    private static final int ISOLATED_MIDDLEGAME = -12;
+    private static final int ISOLATED_ENDGAME = -15;
+    /** Passed pawn bonuses by rank, counted from the pawn's own side of the board */
+    private static final int[] PASSED_MIDDLEGAME = {0, 0, 5, 10, 20, 35, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 5, 15, 30, 50, 80, 120, 0};
+
+    private static final int SHIELD_NEAR = 12;
+    private static final int SHIELD_FAR = 6;
+    private static final int OPEN_FILE_NEAR_KING = -20;
+    /** Attack weight per square of the king zone attacked, by piece type ordinal */
+    private static final int[] ATTACK_WEIGHTS = {0, 5, 2, 2, 3, 0};
+    private static final int MAX_ATTACK_PENALTY = 500;
+
+    private static final long FILE_A = 0x0101_0101_0101_0101L;
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    /** Squares ahead of a pawn on its own and adjacent files, by color and square */
+    private static final long[][] PASSED_SPANS = new long[2][64];
+    /** Squares ahead of a pawn on its own file, by color and square */
+    private static final long[][] FORWARD_FILES = new long[2][64];
+
+    private static final int BISHOP = ChessPiece.PieceType.BISHOP.ordinal();
+    private static final int KNIGHT = ChessPiece.PieceType.KNIGHT.ordinal();
+    private static final int ROOK = ChessPiece.PieceType.ROOK.ordinal();
+    private static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            FILES[file] = FILE_A << file;
+        }
+        for (int file = 0; file < 8; file++) {
+            ADJACENT_FILES[file] = (file > 0 ? FILES[file - 1] : 0) | (file < 7 ? FILES[file + 1] : 0);
+        }
+        for (int square = 0; square < 64; square++) {
+            int file = square & 7;
+            int rank = square >>> 3;
+            long above = rank == 7 ? 0 : -1L << ((rank + 1) * 8);
+            long below = rank == 0 ? 0 : -1L >>> ((8 - rank) * 8);
+            FORWARD_FILES[Bitboards.WHITE][square] = FILES[file] & above;
+            FORWARD_FILES[Bitboards.BLACK][square] = FILES[file] & below;
+            PASSED_SPANS[Bitboards.WHITE][square] = (FILES[file] | ADJACENT_FILES[file]) & above;
+            PASSED_SPANS[Bitboards.BLACK][square] = (FILES[file] | ADJACENT_FILES[file]) & below;
+        }
+    }
+
+    private final PawnHashTable pawnTable;
+
+    public Evaluation() {
+        this(new PawnHashTable(DEFAULT_PAWN_ENTRIES));
+    }
+
+    /**
+     * @param pawnTable the cache for pawn structure scores
+     */
+    public Evaluation(PawnHashTable pawnTable) {
+        this.pawnTable = pawnTable;
+    }
+
+    /**
+     * @param game the position to evaluate
+     * @return the score, positive when the team to move is better off
+     */
+    public int evaluate(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        int middlegame = board.getMiddlegameScore();
+        int endgame = board.getEndgameScore();
+
+        long pawnKey = board.getPawnKey();
+        if (!pawnTable.probe(pawnKey)) {
+            pawnTable.store(pawnKey, pawnStructure(board, true), pawnStructure(board, false));
+        }
+        middlegame += pawnTable.middlegame(pawnKey);
+        endgame += pawnTable.endgame(pawnKey);
+
+        middlegame += kingSafety(board, Bitboards.WHITE) - kingSafety(board, Bitboards.BLACK);
+
+        int phase = Math.min(board.getPhase(), PieceSquareTables.MAX_PHASE);
+        int score = (middlegame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase))
+                / PieceSquareTables.MAX_PHASE;
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+
+    /**
+     * @return the pawn structure score for one half of the game, positive when white's is better
+     */
+    static int pawnStructure(ChessBoard board, boolean middlegame) {
+        return pawnStructure(board, Bitboards.WHITE, middlegame) - pawnStructure(board, Bitboards.BLACK, middlegame);
+    }
+
+    private static int pawnStructure(ChessBoard board, int color, boolean middlegame) {
+        long pawns = board.getPieceBitboard(color * Bitboards.PIECE_TYPES + PAWN);
+        long enemyPawns = board.getPieceBitboard((1 - color) * Bitboards.PIECE_TYPES + PAWN);
+        int score = 0;
+        for (int file = 0; file < 8; file++) {
+            int count = Long.bitCount(pawns & FILES[file]);
+            if (count > 1) {
+                score += (count - 1) * (middlegame ? DOUBLED_MIDDLEGAME : DOUBLED_ENDGAME);
+            }
+            if (count > 0 && (pawns & ADJACENT_FILES[file]) == 0) {
+                score += count * (middlegame ? ISOLATED_MIDDLEGAME : ISOLATED_ENDGAME);
+            }
+        }
+        for (long remaining = pawns; remaining != 0; remaining &= remaining - 1) {
+            int square = Long.numberOfTrailingZeros(remaining);
+            // only the front pawn of a doubled pair can be passed
+            if ((enemyPawns & PASSED_SPANS[color][square]) == 0 && (pawns & FORWARD_FILES[color][square]) == 0) {
+                int rank = color == Bitboards.WHITE ? square >>> 3 : 7 - (square >>> 3);
+                score += middlegame ? PASSED_MIDDLEGAME[rank] : PASSED_ENDGAME[rank];
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Scores how well one king is sheltered, for the middlegame only: once the
+     * attacking pieces are gone the king should come out and fight
+     *
+     * @return the king's safety, positive when it is well sheltered
+     */
+    static int kingSafety(ChessBoard board, int color) {
+        int king = board.getKingSquare(color);
+        if (king == Bitboards.NO_SQUARE) {
+            return 0;
+        }
+        int enemy = 1 - color;
+        long pawns = board.getPieceBitboard(color * Bitboards.PIECE_TYPES + PAWN);
+        int score = 0;
+
+        int rank = color == Bitboards.WHITE ? king >>> 3 : 7 - (king >>> 3);
+        if (rank <= 1) {
+            int file = king & 7;
+            long files = FILES[file] | ADJACENT_FILES[file];
+            long near = files & rankMask(color, rank + 1);
+            long far = files & rankMask(color, rank + 2);
+            score += SHIELD_NEAR * Long.bitCount(pawns & near) + SHIELD_FAR * Long.bitCount(pawns & far);
+            for (int f = Math.max(file - 1, 0); f <= Math.min(file + 1, 7); f++) {
+                if ((pawns & FILES[f]) == 0) {
+                    score += OPEN_FILE_NEAR_KING;
+                }
+            }
+        }
+
+        long zone = AttackTables.kingAttacks(king) | Bitboards.bit(king);
+        long occupied = board.getOccupied();
+        int attackers = 0;
+        int units = 0;
+        for (int type = 0; type < Bitboards.PIECE_TYPES; type++) {
+            if (ATTACK_WEIGHTS[type] == 0) {
+                continue;
+            }
+            for (long pieces = board.getPieceBitboard(enemy * Bitboards.PIECE_TYPES + type);
+                 pieces != 0; pieces &= pieces - 1) {
+                long attacks = attacks(type, Long.numberOfTrailingZeros(pieces), occupied) & zone;
+                if (attacks != 0) {
+                    attackers++;
+                    units += ATTACK_WEIGHTS[type] * Long.bitCount(attacks);
+                }
+            }
+        }
+        // one piece near the king is no threat; each more makes the others far more dangerous
+        if (attackers > 1) {
+            score -= Math.min(units * units / 4, MAX_ATTACK_PENALTY);
+        }
+        return score;
+    }
+
+    private static long attacks(int type, int square, long occupied) {
+        if (type == KNIGHT) {
+            return AttackTables.knightAttacks(square);
+        }
+        if (type == BISHOP) {
+            return SlidingAttacks.bishopAttacks(square, occupied);
+        }
+        if (type == ROOK) {
+            return SlidingAttacks.rookAttacks(square, occupied);
+        }
+        return SlidingAttacks.queenAttacks(square, occupied);
+    }
+
+    /**
+     * @param rank a rank counted from the color's own side, from 0 to 7
+     * @return the squares of that rank
+     */
+    private static long rankMask(int color, int rank) {
+        int absolute = color == Bitboards.WHITE ? rank : 7 - rank;
+        return 0xFFL << (absolute * 8);
+    }
+}
@@ -0,0 +1,128 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Searches one position on several threads at once with Lazy SMP: each thread runs
+ * its own iterative-deepening {@link Search} of the same root, and they cooperate
+ * only through a shared {@link TranspositionTable}. What one thread stores cuts short
+ * or reorders the others' searches, so together they reach a given depth sooner than
+ * one thread alone.
+ * <p>
+ * The main search runs on the calling thread and keeps to the limits given. Helpers
+ * run on the executor with no budget of their own and are stopped when the main
+ * search finishes. A helper skips a depth that half the threads are already
+ * searching, so the helpers tend to work ahead of the main search and fill the table
+ * with results it is about to need. The result is the main search's, unless a helper
+ * finished a deeper iteration.
+ * <p>
+ * One ParallelSearch should be used by one thread at a time; {@link #stop()} may be
+ * called from any thread.
+ */
+public class ParallelSearch {
+    private final Search[] searches;
+    private final Executor helperExecutor;
+    private volatile AtomicIntegerArray searching = new AtomicIntegerArray(Search.MAX_PLY + 1);
+    private volatile boolean mainFinished;
+    private volatile boolean stopped;
+
+    /**
+     * @param table the transposition table the threads share
+     * @param threads the number of threads to search on, counting the calling thread
+     * @param helperExecutor runs the helper threads; it should have a thread free for each
+     *                       helper, or the helpers start late and do less
+     */
+    public ParallelSearch(TranspositionTable table, int threads, Executor helperExecutor) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        this.helperExecutor = helperExecutor;
+        this.searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table, this, i);
+        }
+    }
+
+    /**
+     * Searches a position within the given limits, blocking until every helper has stopped
+     *
+     * @param position the position to search, which is left unchanged
+     * @param limits how deep and for how long to search
+     * @return the best move found, its score, and the nodes searched by all threads
+     */
+    public SearchResult search(ChessGame position, SearchLimits limits) {
+        searching = new AtomicIntegerArray(Search.MAX_PLY + 1);
+        mainFinished = false;
+        SearchLimits helperLimits = SearchLimits.depth(limits.maxDepth());
+        List<CompletableFuture<SearchResult>> helpers = new ArrayList<>();
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            helpers.add(CompletableFuture.supplyAsync(() -> helper.search(position, helperLimits), helperExecutor));
+        }
+
+        SearchResult best;
+        try {
+            best = searches[0].search(position, limits);
+        } finally {
+            mainFinished = true;
+        }
+        long nodes = best.nodes();
+        for (CompletableFuture<SearchResult> helper : helpers) {
+            SearchResult result = helper.join();
+            if (result == null) {
+                continue;
+            }
+            nodes += result.nodes();
+            if (result.bestMove() != null && result.depth() > best.depth()) {
+                best = result;
+            }
+        }
+        stopped = false;
+        return new SearchResult(best.bestMove(), best.score(), best.depth(), nodes, best.principalVariation());
+    }
+
+    /**
+     * Stops every thread as soon as possible. The result is the deepest iteration
+     * finished. A stop requested before the search starts ends it as soon as it starts.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @return the number of threads searching, counting the calling thread
+     */
+    public int getThreads() {
+        return searches.length;
+    }
+
+    boolean shouldStop(int thread) {
+        return stopped || thread > 0 && mainFinished;
+    }
+
+    /**
+     * Starts a thread's iteration at a depth, unless it is a helper and half the
+     * threads are already searching that depth
+     *
+     * @param last whether this is the last depth the thread may search, which is never skipped
+     * @return true if the thread should search the depth, and later release it
+     */
+    boolean claimDepth(int thread, int depth, boolean last) {
+        AtomicIntegerArray counts = searching;
+        if (thread > 0 && !last && counts.get(depth) >= (searches.length + 1) / 2) {
+            return false;
+        }
+        counts.incrementAndGet(depth);
+        return true;
+    }
+
+    void releaseDepth(int depth) {
+        searching.decrementAndGet(depth);
+    }
+}
@@ -0,0 +1,97 @@
+package chess.engine;
+
+/**
+ * A cache of pawn structure scores keyed by the pawns' Zobrist key.
+ * <p>
+ * Pawns move far less often than other pieces, so most positions a search reaches
+ * share their pawn structure with many others and the structure need only be
+ * scored once. Each entry holds the full key and both scores; a clash simply
+ * replaces the older entry. The table is not thread-safe, so each search keeps its
+ * own.
+ */
+public class PawnHashTable {
+    private final long[] keys;
+    private final long[] scores;
+    private final int mask;
+    private long probes;
+    private long hits;
+
+    /**
+     * @param entries the number of entries, rounded down to a power of two
+     */
+    public PawnHashTable(int entries) {
+        if (entries < 1) {
+            throw new IllegalArgumentException("Size must be at least 1 entry");
+        }
+        int size = Integer.highestOneBit(entries);
+        keys = new long[size];
+        scores = new long[size];
+        mask = size - 1;
+        // only the structure with no pawns has key 0 and lands in entry 0, which must not
+        // start out claiming to hold it
+        keys[0] = 1;
+    }
+
+    /**
+     * Looks up a pawn structure
+     *
+     * @param pawnKey the pawns' Zobrist key
+     * @return true if the structure is stored, and can be read with {@link #middlegame} and {@link #endgame}
+     */
+    public boolean probe(long pawnKey) {
+        probes++;
+        if (keys[index(pawnKey)] == pawnKey) {
+            hits++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the middlegame score of a structure just found by {@link #probe}, positive for white
+     */
+    public int middlegame(long pawnKey) {
+        return (int) scores[index(pawnKey)];
+    }
+
+    /**
+     * @return the endgame score of a structure just found by {@link #probe}, positive for white
+     */
+    public int endgame(long pawnKey) {
+        return (int) (scores[index(pawnKey)] >> 32);
+    }
+
+    /**
+     * Stores the scores of a pawn structure, replacing whatever shared its entry
+     */
+    public void store(long pawnKey, int middlegame, int endgame) {
+        int index = index(pawnKey);
+        keys[index] = pawnKey;
+        scores[index] = ((long) endgame << 32) | (middlegame & 0xFFFF_FFFFL);
+    }
+
+    /**
+     * @return the number of entries the table holds
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * @return the number of probes so far
+     */
+    public long getProbes() {
+        return probes;
+    }
+
+    /**
+     * @return the number of probes so far that found their structure
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    private int index(long pawnKey) {
+        return (int) pawnKey & mask;
+    }
+}
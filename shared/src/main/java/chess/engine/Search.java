@@ -0,0 +1,453 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.PackedMove;
+import chess.bitboard.Bitboards;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Finds the best move in a position with an iterative-deepening alpha-beta search.
+ * <p>
+ * Each iteration searches one ply deeper than the last, so a search stopped by its
+ * time or node budget still has the best move of the deepest finished iteration.
+ * Leaves are resolved by a quiescence search over captures and promotions, so the
+ * static evaluation is never taken in the middle of an exchange. Moves are tried
+ * best first: the previous iteration's best move, then captures by most valuable
+ * victim and least valuable attacker (MVV-LVA), then killer moves that caused a
+ * cutoff at the same ply, then quiet moves by their history of causing cutoffs.
+ * <p>
+ * Results are kept in a {@link TranspositionTable}, which supplies the best move
+ * to try first when a position comes up again and cuts the search short when an
+ * earlier result was deep enough. The table may be shared by many searches.
+ * <p>
+ * A search works on its own copy of the game with buffers preallocated per ply, so
+ * it does not allocate while searching. One Search should be used by one thread at
+ * a time; {@link #stop()} may be called from any thread. {@link ParallelSearch} runs
+ * several Searches on one position at once.
+ */
+public class Search {
+    public static final int MAX_PLY = 64;
+    public static final int INFINITY = 32_000;
+    public static final int MATE = 31_000;
+    /**
+     * Scores at least this far from zero are forced mates, {@link #MATE} minus the plies to mate
+     */
+    public static final int MATE_BOUND = MATE - 2 * MAX_PLY;
+
+    private static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    /**
+     * The clock and stop flag are checked once per this many nodes
+     */
+    private static final int CHECK_INTERVAL = 1024;
+
+    private static final int PV_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 26;
+    /**
+     * History scores are halved once any reaches this, so they stay below the killers
+     */
+    private static final int HISTORY_LIMIT = 1 << 24;
+    private static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+
+    private final int[][] moves = new int[MAX_PLY * 2][ChessGame.MAX_MOVES];
+    private final int[][] orderScores = new int[MAX_PLY * 2][ChessGame.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][] history = new int[Bitboards.PIECE_COUNT][64];
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    private final int[] previousPv = new int[MAX_PLY + 1];
+    private int previousPvLength;
+
+    private final Evaluation evaluation = new Evaluation();
+    private final TranspositionTable table;
+    private final ParallelSearch group;
+    private final int thread;
+    private ChessGame game;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private volatile boolean stopped;
+
+    /**
+     * Creates a search with a transposition table of its own
+     */
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * @param table the transposition table to use, which may be shared with other searches
+     */
+    public Search(TranspositionTable table) {
+        this(table, null, 0);
+    }
+
+    /**
+     * @param group the parallel search this is one thread of, or null
+     * @param thread the thread's index in the group, where 0 is the main search
+     */
+    Search(TranspositionTable table, ParallelSearch group, int thread) {
+        this.table = table;
+        this.group = group;
+        this.thread = thread;
+    }
+
+    /**
+     * Searches a position within the given limits
+     *
+     * @param position the position to search, which is left unchanged
+     * @param limits how deep and for how long to search
+     * @return the best move found and its score
+     */
+    public SearchResult search(ChessGame position, SearchLimits limits) {
+        return search(position, limits, result -> { });
+    }
+
+    /**
+     * Searches a position within the given limits, reporting each iteration as it finishes
+     *
+     * @param position the position to search, which is left unchanged
+     * @param limits how deep and for how long to search
+     * @param onIteration told the result of each finished iteration, on the searching thread
+     * @return the best move found and its score
+     */
+    public SearchResult search(ChessGame position, SearchLimits limits, Consumer<SearchResult> onIteration) {
+        long start = System.nanoTime();
+        game = new ChessGame(position);
+        nodes = 0;
+        nodeLimit = limits.maxNodes() > 0 ? limits.maxNodes() : Long.MAX_VALUE;
+        deadline = limits.maxTimeMillis() > 0 ? start + limits.maxTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+        stopped = false;
+        for (int[] killer : killers) {
+            Arrays.fill(killer, PackedMove.NONE);
+        }
+        for (int[] scores : history) {
+            Arrays.fill(scores, 0);
+        }
+        pvLength[0] = 0;
+        previousPvLength = 0;
+        if (thread == 0) {
+            table.newSearch();
+        }
+
+        SearchResult result = null;
+        for (int depth = 1; depth <= limits.maxDepth(); depth++) {
+            // helpers spread out over the depths rather than all repeating the main search
+            if (group != null && !group.claimDepth(thread, depth, depth == limits.maxDepth())) {
+                if (group.shouldStop(thread)) {
+                    break;
+                }
+                continue;
+            }
+            int score = alphaBeta(depth, 0, -INFINITY, INFINITY);
+            if (group != null) {
+                group.releaseDepth(depth);
+            }
+            // a helper stopped before finishing an iteration has nothing to add
+            if (stopped && (result != null || thread > 0)) {
+                break;
+            }
+            result = result(score, depth);
+            previousPvLength = pvLength[0];
+            System.arraycopy(pv[0], 0, previousPv, 0, previousPvLength);
+            if (result.bestMove() == null) {
+                // stopped before the first move was searched, so fall back on any legal move
+                int count = game.generateLegalMoves(moves[0]);
+                if (count > 0) {
+                    result = new SearchResult(PackedMove.toChessMove(moves[0][0]), score, 0, nodes,
+                            List.of(PackedMove.toChessMove(moves[0][0])));
+                }
+                break;
+            }
+            onIteration.accept(result);
+            if (stopped || result.isMate()) {
+                break;
+            }
+            // the next iteration takes several times as long, so do not start one that cannot finish
+            if (deadline != Long.MAX_VALUE && System.nanoTime() - start > (deadline - start) / 2) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stops the search as soon as possible. The result is the deepest iteration finished.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @return the number of positions searched so far
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    private SearchResult result(int score, int depth) {
+        List<ChessMove> line = new ArrayList<>(pvLength[0]);
+        for (int i = 0; i < pvLength[0]; i++) {
+            line.add(PackedMove.toChessMove(pv[0][i]));
+        }
+        ChessMove best = line.isEmpty() ? null : line.get(0);
+        return new SearchResult(best, score, depth, nodes, List.copyOf(line));
+    }
+
+    private int alphaBeta(int depth, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        nodes++;
+        if (ply > 0) {
+            if (shouldStop()) {
+                return 0;
+            }
+            if (isDraw()) {
+                return 0;
+            }
+            // no line from here can beat a mate already found nearer the root
+            alpha = Math.max(alpha, -MATE + ply);
+            beta = Math.min(beta, MATE - ply - 1);
+            if (alpha >= beta) {
+                return alpha;
+            }
+        }
+
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiescence(ply, alpha, beta);
+        }
+        if (ply >= MAX_PLY) {
+            return evaluation.evaluate(game);
+        }
+
+        long key = game.getZobristKey();
+        long entry = table.probe(key);
+        int hashMove = TranspositionTable.move(entry);
+        // the principal variation is kept whole by only cutting off in null-window searches
+        if (entry != TranspositionTable.MISS && ply > 0 && beta - alpha == 1
+                && TranspositionTable.depth(entry) >= depth) {
+            int score = TranspositionTable.score(entry, ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        int[] list = moves[ply];
+        int count = game.generateLegalMoves(list);
+        if (count == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        if (hashMove == PackedMove.NONE && ply < previousPvLength) {
+            hashMove = previousPv[ply];
+        }
+        scoreMoves(list, orderScores[ply], count, ply, hashMove);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(list, orderScores[ply], i, count);
+            boolean quiet = isQuiet(move);
+            int piece = game.getBoard().pieceAt(PackedMove.from(move));
+
+            game.doMove(move);
+            int score;
+            if (i == 0) {
+                score = -alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+            } else {
+                score = -alphaBeta(depth - 1, ply + 1, -alpha - 1, -alpha);
+                if (score > alpha && score < beta) {
+                    score = -alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+                }
+            }
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        if (quiet) {
+                            rememberCutoff(move, piece, ply, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bound == TranspositionTable.UPPER ? PackedMove.NONE : bestMove, best, depth, bound, ply);
+        return best;
+    }
+
+    /**
+     * Searches only captures and promotions until the position is quiet, letting the
+     * team to move stand pat on the static evaluation unless it is in check
+     */
+    private int quiescence(int ply, int alpha, int beta) {
+        nodes++;
+        if (shouldStop()) {
+            return 0;
+        }
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        if (ply >= moves.length) {
+            return evaluation.evaluate(game);
+        }
+
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = evaluation.evaluate(game);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        int[] list = moves[ply];
+        int count = game.generateLegalMoves(list);
+        if (count == 0) {
+            return inCheck ? -MATE + ply : best;
+        }
+        int tactical = 0;
+        for (int i = 0; i < count; i++) {
+            if (inCheck || !isQuiet(list[i])) {
+                list[tactical++] = list[i];
+            }
+        }
+        scoreMoves(list, orderScores[ply], tactical, Math.min(ply, MAX_PLY - 1), PackedMove.NONE);
+
+        for (int i = 0; i < tactical; i++) {
+            int move = pickMove(list, orderScores[ply], i, tactical);
+            game.doMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            game.undoMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private boolean shouldStop() {
+        if (nodes % CHECK_INTERVAL == 0 && (nodes >= nodeLimit || System.nanoTime() >= deadline
+                || group != null && group.shouldStop(thread))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * A position already reached on the way here, or in the game before the search,
+     * is scored as a draw, since the side that repeated it can repeat it again
+     */
+    private boolean isDraw() {
+        return game.getHalfmoveClock() >= ChessGame.FIFTY_MOVE_LIMIT || game.repetitionCount() > 1
+                || game.hasInsufficientMaterial();
+    }
+
+    private void scoreMoves(int[] list, int[] scores, int count, int ply, int hashMove) {
+        ChessBoard board = game.getBoard();
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            int from = PackedMove.from(move);
+            int to = PackedMove.to(move);
+            int piece = board.pieceAt(from);
+            if (move == hashMove) {
+                scores[i] = PV_SCORE;
+            } else if (!isQuiet(move)) {
+                int victim = board.pieceAt(to);
+                int victimValue = PackedMove.hasFlag(move, PackedMove.EN_PASSANT) ? Evaluation.PIECE_VALUES[PAWN]
+                        : victim == Bitboards.NO_PIECE ? 0 : Evaluation.PIECE_VALUES[Bitboards.typeOf(victim)];
+                int promotion = PackedMove.promotionType(move);
+                if (promotion >= 0) {
+                    victimValue += Evaluation.PIECE_VALUES[promotion];
+                }
+                scores[i] = CAPTURE_SCORE + victimValue * 16 - Evaluation.PIECE_VALUES[Bitboards.typeOf(piece)] / 16;
+            } else if (move == killers[ply][0]) {
+                scores[i] = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                scores[i] = KILLER_SCORE;
+            } else {
+                scores[i] = history[piece][to];
+            }
+        }
+    }
+
+    /**
+     * Moves the best scored of the remaining moves to position i and returns it
+     */
+    private static int pickMove(int[] list, int[] scores, int i, int count) {
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        int move = list[best];
+        list[best] = list[i];
+        list[i] = move;
+        int score = scores[best];
+        scores[best] = scores[i];
+        scores[i] = score;
+        return move;
+    }
+
+    private boolean isQuiet(int move) {
+        return game.getBoard().pieceAt(PackedMove.to(move)) == Bitboards.NO_PIECE
+                && PackedMove.promotionType(move) < 0 && !PackedMove.hasFlag(move, PackedMove.EN_PASSANT);
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        int next = ply + 1;
+        int length = Math.max(pvLength[next], next);
+        System.arraycopy(pv[next], next, pv[ply], next, length - next);
+        pvLength[ply] = length;
+    }
+
+    private void rememberCutoff(int move, int piece, int ply, int depth) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] scores = history[piece];
+        scores[PackedMove.to(move)] += depth * depth;
+        if (scores[PackedMove.to(move)] >= HISTORY_LIMIT) {
+            for (int[] table : history) {
+                for (int square = 0; square < table.length; square++) {
+                    table[square] /= 2;
+                }
+            }
+        }
+    }
+}
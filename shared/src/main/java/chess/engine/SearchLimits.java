@@ -0,0 +1,42 @@
+package chess.engine;
+
+/**
+ * How far a search may go. The search deepens one ply at a time and stops at
+ * whichever limit it reaches first.
+ *
+ * @param maxDepth the deepest iteration to search, at least 1
+ * @param maxTimeMillis the time budget in milliseconds, or 0 for no limit
+ * @param maxNodes the node budget, or 0 for no limit
+ */
+public record SearchLimits(int maxDepth, long maxTimeMillis, long maxNodes) {
+
+    public SearchLimits {
+        if (maxDepth < 1 || maxDepth > Search.MAX_PLY) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + Search.MAX_PLY);
+        }
+        if (maxTimeMillis < 0 || maxNodes < 0) {
+            throw new IllegalArgumentException("Budgets cannot be negative");
+        }
+    }
+
+    /**
+     * @param depth the depth to search to, with no time or node limit
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    /**
+     * @param millis the time to search for, going as deep as the time allows
+     */
+    public static SearchLimits time(long millis) {
+        return new SearchLimits(Search.MAX_PLY, millis, 0);
+    }
+
+    /**
+     * @param nodes the number of nodes to search, going as deep as they allow
+     */
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(Search.MAX_PLY, 0, nodes);
+    }
+}
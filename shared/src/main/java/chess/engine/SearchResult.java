@@ -0,0 +1,37 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * The outcome of a search: the deepest completed iteration's best move, score and
+ * expected line of play
+ *
+ * @param bestMove the move to play, or null if the team to move has no legal moves
+ * @param score the score in centipawns for the team to move, or a mate score
+ * @param depth the deepest iteration completed
+ * @param nodes the number of positions searched
+ * @param principalVariation the best line found, starting with the best move
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes,
+                           List<ChessMove> principalVariation) {
+
+    /**
+     * @return true if the score is a forced checkmate for either team
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE_BOUND;
+    }
+
+    /**
+     * @return the number of moves until checkmate, negative if the team to move is mated, or 0 if no mate was found
+     */
+    public int mateIn() {
+        if (!isMate()) {
+            return 0;
+        }
+        int plies = Search.MATE - Math.abs(score);
+        return (score > 0 ? 1 : -1) * ((plies + 1) / 2);
+    }
+}
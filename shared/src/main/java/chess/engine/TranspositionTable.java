@@ -0,0 +1,263 @@
+package chess.engine;
+
+import chess.PackedMove;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed-size table of search results keyed by Zobrist hash, shared without locks
+ * by any number of searches running at once.
+ * <p>
+ * Each entry is two longs: the result packed into one, and the key XORed with that
+ * result in the other. A reader accepts an entry only if XORing the two gives back
+ * the key it is probing for, so an entry torn by two threads writing it at the same
+ * time reads as a miss instead of another position's result. The longs are read
+ * and written with opaque access, which is atomic for longs on every JVM.
+ * <p>
+ * Entries are grouped four to a bucket, one 64-byte cache line. A new result
+ * replaces the entry for the same position, or else the entry in its bucket worth
+ * least: the shallowest, counting entries left by earlier searches as shallower
+ * the older they are. {@link #newSearch()} starts a new generation for that aging.
+ * <p>
+ * A table shared by many games at once, each searching on its own schedule, should
+ * not age on every search: the generation counter is only six bits, so it would
+ * wrap within a few dozen searches, and one game's search would age the entries
+ * another game is still using. Such a table is given a time slice instead, and a
+ * search starts a new generation only once the slice has passed since the last one,
+ * so every search within a slice shares a generation.
+ */
+public class TranspositionTable {
+    /** The entry holds the exact score */
+    public static final int EXACT = 1;
+    /** The score is at least the stored score, which failed high */
+    public static final int LOWER = 2;
+    /** The score is at most the stored score, which failed low */
+    public static final int UPPER = 3;
+
+    /** What {@link #probe} returns when the position is not in the table */
+    public static final long MISS = 0L;
+
+    static final int BUCKET_ENTRIES = 4;
+    private static final int LONGS_PER_BUCKET = BUCKET_ENTRIES * 2;
+
+    private static final int SCORE_SHIFT = 18;
+    private static final int DEPTH_SHIFT = 34;
+    private static final int BOUND_SHIFT = 42;
+    private static final int GENERATION_SHIFT = 44;
+    private static final int MOVE_MASK = (1 << SCORE_SHIFT) - 1;
+    private static final int GENERATION_MASK = 0x3F;
+    /**
+     * How many plies of depth one generation of age is worth when choosing an entry to replace
+     */
+    private static final int AGE_WEIGHT = 8;
+
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] table;
+    private final long bucketMask;
+    private final long generationNanos;
+    private final AtomicLong generationStart = new AtomicLong(System.nanoTime());
+    private volatile int generation;
+
+    /**
+     * Creates a table that starts a new generation on every search, for one game
+     * searched at a time
+     *
+     * @param megabytes the memory to use, rounded down to a power of two number of buckets
+     */
+    public TranspositionTable(int megabytes) {
+        this(megabytes, 0);
+    }
+
+    /**
+     * @param megabytes the memory to use, rounded down to a power of two number of buckets
+     * @param generationMillis the least time between new generations, or 0 to start one on every search
+     */
+    public TranspositionTable(int megabytes, long generationMillis) {
+        if (generationMillis < 0) {
+            throw new IllegalArgumentException("Generation time must not be negative");
+        }
+        this.generationNanos = generationMillis * 1_000_000L;
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Size must be at least 1 MB");
+        }
+        long buckets = Long.highestOneBit((long) megabytes * 1024 * 1024 / (LONGS_PER_BUCKET * Long.BYTES));
+        if (buckets * LONGS_PER_BUCKET > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Size too large: " + megabytes + " MB");
+        }
+        table = new long[(int) (buckets * LONGS_PER_BUCKET)];
+        bucketMask = buckets - 1;
+    }
+
+    /**
+     * Starts a new generation, so entries stored by earlier searches are replaced first,
+     * unless the table's time slice has not yet passed since the last one
+     */
+    public void newSearch() {
+        if (generationNanos > 0) {
+            long now = System.nanoTime();
+            long start = generationStart.get();
+            // of searches starting together at the end of a slice, only one advances it
+            if (now - start < generationNanos || !generationStart.compareAndSet(start, now)) {
+                return;
+            }
+        }
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Finds a stored result
+     *
+     * @param key the position's Zobrist key
+     * @return the packed entry, to be read with the static accessors, or {@link #MISS}
+     */
+    public long probe(long key) {
+        int base = bucket(key);
+        for (int i = base; i < base + LONGS_PER_BUCKET; i += 2) {
+            long data = (long) SLOT.getOpaque(table, i + 1);
+            if (data != MISS && ((long) SLOT.getOpaque(table, i) ^ data) == key) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores a search result
+     *
+     * @param key the position's Zobrist key
+     * @param move the best move found, or {@link PackedMove#NONE}
+     * @param score the score found, relative to the team to move
+     * @param depth the depth searched, from 0 to 255
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     * @param ply the distance from the root, so mate scores can be stored relative to this position
+     */
+    public void store(long key, int move, int score, int depth, int bound, int ply) {
+        int base = bucket(key);
+        int replace = base;
+        int lowestWorth = Integer.MAX_VALUE;
+        int current = generation;
+        for (int i = base; i < base + LONGS_PER_BUCKET; i += 2) {
+            long data = (long) SLOT.getOpaque(table, i + 1);
+            if (data == MISS) {
+                replace = i;
+                break;
+            }
+            if (((long) SLOT.getOpaque(table, i) ^ data) == key) {
+                // a shallower result for the same position keeps the move already known
+                if (move == PackedMove.NONE) {
+                    move = move(data);
+                }
+                if (bound != EXACT && depth < depth(data) - 2 && generation(data) == current) {
+                    return;
+                }
+                replace = i;
+                break;
+            }
+            int worth = depth(data) - AGE_WEIGHT * ((current - generation(data)) & GENERATION_MASK);
+            if (worth < lowestWorth) {
+                lowestWorth = worth;
+                replace = i;
+            }
+        }
+
+        long data = (move & MOVE_MASK)
+                | ((long) (toStored(score, ply) & 0xFFFF) << SCORE_SHIFT)
+                | ((long) Math.min(Math.max(depth, 0), 0xFF) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) current << GENERATION_SHIFT);
+        SLOT.setOpaque(table, replace, key ^ data);
+        SLOT.setOpaque(table, replace + 1, data);
+    }
+
+    /**
+     * Empties the table
+     */
+    public void clear() {
+        for (int i = 0; i < table.length; i++) {
+            SLOT.setOpaque(table, i, 0L);
+        }
+    }
+
+    /**
+     * @return the number of entries the table holds
+     */
+    public int capacity() {
+        return table.length / 2;
+    }
+
+    /**
+     * @return how full the table is with entries of the current generation, in thousandths, from a sample
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, capacity());
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = (long) SLOT.getOpaque(table, 2 * i + 1);
+            if (data != MISS && generation(data) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * @return the best move of an entry, or {@link PackedMove#NONE}
+     */
+    public static int move(long entry) {
+        return (int) (entry & MOVE_MASK);
+    }
+
+    /**
+     * @param ply the distance of the probing position from the root
+     * @return the score of an entry, with mate scores made relative to the root again
+     */
+    public static int score(long entry, int ply) {
+        int score = (short) (entry >>> SCORE_SHIFT);
+        if (score >= Search.MATE_BOUND) {
+            return score - ply;
+        }
+        if (score <= -Search.MATE_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * @return the depth an entry was searched to
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    /**
+     * @return {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public static int bound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+
+    /**
+     * Mate scores count plies from the root, but an entry can be reached at any
+     * ply, so they are stored counting from the entry's own position
+     */
+    private static int toStored(int score, int ply) {
+        if (score >= Search.MATE_BOUND) {
+            return score + ply;
+        }
+        if (score <= -Search.MATE_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private int bucket(long key) {
+        return (int) (key & bucketMask) * LONGS_PER_BUCKET;
+    }
+}
@@ -0,0 +1,241 @@
+package chess.perft;
+
+import chess.*;
+import chess.bitboard.Bitboards;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft").
+ * <p>
+ * Comparing the counts with published values catches move generation bugs,
+ * and timing them measures generator speed. Counting can go through the public
+ * {@link ChessGame#validMoves} API or through the packed legal move generator,
+ * so every generator can be checked against the same reference numbers.
+ * <p>
+ * Large counts can be split across a {@link ForkJoinPool}. Each task works on
+ * its own copy of the game, so the workers share nothing but the results.
+ */
+public class Perft {
+
+    /**
+     * Subtrees this shallow are counted by a single task. Deeper ones are split
+     * by move, which leaves enough tasks for work stealing to balance the load.
+     */
+    private static final int SEQUENTIAL_DEPTH = 3;
+
+    /**
+     * The move generation path to count with
+     */
+    public enum Generator {
+        /** {@link ChessGame#validMoves} for every piece of the side to move */
+        VALID_MOVES,
+        /** {@link ChessGame#generateLegalMoves} into reusable packed move buffers */
+        LEGAL_MOVES
+    }
+
+    private final Generator generator;
+
+    public Perft(Generator generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * Counts the leaf nodes below a position. The count runs on a copy, so the game,
+     * including any moves it could redo, is not modified.
+     *
+     * @param game the position to count from
+     * @param depth the number of plies to search, at least 1
+     * @return the number of legal move sequences of that length
+     */
+    public long count(ChessGame game, int depth) {
+        return countFrom(new ChessGame(game), depth);
+    }
+
+    /**
+     * Counts the leaf nodes below each legal root move. The count runs on a copy,
+     * so the game is not modified.
+     *
+     * @param game the position to count from
+     * @param depth the number of plies to search, at least 1
+     * @return leaf counts keyed by root move in coordinate form, such as "e2e4"
+     */
+    public Map<String, Long> divide(ChessGame game, int depth) {
+        ChessGame position = new ChessGame(game);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        int[] moves = new int[ChessGame.MAX_MOVES];
+        int count = position.generateLegalMoves(moves);
+        for (int i = 0; i < count; i++) {
+            long nodes = 1;
+            if (depth > 1) {
+                position.doMove(moves[i]);
+                nodes = countFrom(position, depth - 1);
+                position.undoMove();
+            }
+            counts.put(Notation.toUci(moves[i]), nodes);
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the leaf nodes below a position in place, making and unmaking moves on
+     * the game itself
+     */
+    private long countFrom(ChessGame game, int depth) {
+        if (generator == Generator.VALID_MOVES) {
+            return countValidMoves(game, depth);
+        }
+        return countLegalMoves(game, depth, new int[depth][ChessGame.MAX_MOVES]);
+    }
+
+    /**
+     * Counts the leaf nodes below a position, splitting the tree across a pool.
+     * The game itself is not modified.
+     *
+     * @param game the position to count from
+     * @param depth the number of plies to search, at least 1
+     * @param pool the pool to run the count in
+     * @return the number of legal move sequences of that length
+     */
+    public long countParallel(ChessGame game, int depth, ForkJoinPool pool) {
+        return pool.invoke(new CountTask(new ChessGame(game), depth));
+    }
+
+    /**
+     * Counts the leaf nodes below each position, counting the positions in parallel
+     * and splitting each one across the pool. The games are not modified.
+     *
+     * @param games the positions to count from
+     * @param depth the number of plies to search, at least 1
+     * @param pool the pool to run the counts in
+     * @return the leaf counts, in the same order as the games
+     */
+    public long[] countAllParallel(List<ChessGame> games, int depth, ForkJoinPool pool) {
+        List<CountTask> tasks = new ArrayList<>(games.size());
+        for (ChessGame game : games) {
+            CountTask task = new CountTask(new ChessGame(game), depth);
+            pool.execute(task);
+            tasks.add(task);
+        }
+        long[] counts = new long[tasks.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = tasks.get(i).join();
+        }
+        return counts;
+    }
+
+    /**
+     * Counts one subtree, forking a task with its own game copy for each move
+     * until the remaining depth is small enough to count directly
+     */
+    private final class CountTask extends RecursiveTask<Long> {
+        private final ChessGame game;
+        private final int depth;
+
+        CountTask(ChessGame game, int depth) {
+            this.game = game;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SEQUENTIAL_DEPTH) {
+                return countFrom(game, depth);
+            }
+            int[] moves = new int[ChessGame.MAX_MOVES];
+            int count = game.generateLegalMoves(moves);
+            List<CountTask> children = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                // each copy also clones the move history, which costs little: the history
+                // is only a few plies longer than the game's, and tasks are rare next to nodes
+                ChessGame child = new ChessGame(game);
+                child.doMove(moves[i]);
+                children.add(new CountTask(child, depth - 1));
+            }
+            long nodes = 0;
+            for (CountTask child : invokeAll(children)) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+    }
+
+    private long countLegalMoves(ChessGame game, int depth, int[][] buffers) {
+        int[] moves = buffers[depth - 1];
+        int count = game.generateLegalMoves(moves);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            game.doMove(moves[i]);
+            nodes += countLegalMoves(game, depth - 1, buffers);
+            game.undoMove();
+        }
+        return nodes;
+    }
+
+    private long countValidMoves(ChessGame game, int depth) {
+        ChessBoard board = game.getBoard();
+        long pieces = board.getColorBitboard(Bitboards.colorIndex(game.getTeamTurn()));
+        long nodes = 0;
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            for (ChessMove move : game.validMoves(Bitboards.position(square))) {
+                if (depth == 1) {
+                    nodes++;
+                } else {
+                    game.doMove(game.findLegalMove(move));
+                    nodes += countValidMoves(game, depth - 1);
+                    game.undoMove();
+                }
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Runs the reference suite and prints counts, pass/fail and nodes per second.
+     * <p>
+     * Arguments: {@code [maxDepth] [valid|legal] [divide|parallel]}. With "divide"
+     * the start position is split by root move instead, and with "parallel" each
+     * count is spread across the common fork/join pool.
+     */
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        Generator generator = args.length > 1 && args[1].equalsIgnoreCase("valid")
+                ? Generator.VALID_MOVES : Generator.LEGAL_MOVES;
+        Perft perft = new Perft(generator);
+
+        String mode = args.length > 2 ? args[2] : "";
+        boolean parallel = mode.equalsIgnoreCase("parallel");
+        if (mode.equalsIgnoreCase("divide")) {
+            long total = 0;
+            for (Map.Entry<String, Long> entry : perft.divide(ChessGame.fromFen(PerftSuite.START.fen()), maxDepth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                total += entry.getValue();
+            }
+            System.out.println("total: " + total);
+            return;
+        }
+
+        for (PerftPosition position : PerftSuite.ALL) {
+            for (int depth = 1; depth <= Math.min(maxDepth, position.maxDepth()); depth++) {
+                ChessGame game = ChessGame.fromFen(position.fen());
+                long start = System.nanoTime();
+                long nodes = parallel
+                        ? perft.countParallel(game, depth, ForkJoinPool.commonPool())
+                        : perft.count(game, depth);
+                long elapsed = Math.max(System.nanoTime() - start, 1);
+                System.out.printf("%-11s depth %d  %,14d  %s  %,12.0f nodes/s%n", position.name(), depth, nodes,
+                        nodes == position.expected(depth) ? "ok      " : "MISMATCH", nodes * 1e9 / elapsed);
+            }
+        }
+    }
+}
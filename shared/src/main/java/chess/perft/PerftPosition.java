@@ -0,0 +1,26 @@
+package chess.perft;
+
+/**
+ * A reference position with its known perft node counts
+ *
+ * @param name a short name for reports
+ * @param fen the position in Forsyth-Edwards Notation
+ * @param counts the expected leaf count at depth 1, 2, 3, ...
+ */
+public record PerftPosition(String name, String fen, long... counts) {
+
+    /**
+     * @return the deepest depth with a known count
+     */
+    public int maxDepth() {
+        return counts.length;
+    }
+
+    /**
+     * @param depth the search depth, starting at 1
+     * @return the expected leaf count at that depth
+     */
+    public long expected(int depth) {
+        return counts[depth - 1];
+    }
+}
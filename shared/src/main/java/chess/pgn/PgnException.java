@@ -0,0 +1,20 @@
+package chess.pgn;
+
+/**
+ * Indicates a game in a PGN file is malformed or contains an illegal move
+ */
+public class PgnException extends Exception {
+    private final long lineNumber;
+
+    public PgnException(String message, long lineNumber) {
+        super("Line " + lineNumber + ": " + message);
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * @return the line of the file the problem was found on, counting from 1
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+}
@@ -0,0 +1,74 @@
+package chess.pgn;
+
+import chess.ChessGame;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A game read from or written to a PGN file: its tag pairs in file order and the
+ * game with every move of its main line made
+ */
+public final class PgnGame {
+    public static final String WHITE_WINS = "1-0";
+    public static final String BLACK_WINS = "0-1";
+    public static final String DRAW = "1/2-1/2";
+    public static final String UNFINISHED = "*";
+
+    private final Map<String, String> tags;
+    private final ChessGame game;
+
+    public PgnGame(Map<String, String> tags, ChessGame game) {
+        this.tags = Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+        this.game = game;
+    }
+
+    /**
+     * @return the tag pairs, in the order they appeared
+     */
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * @param name a tag name, such as "White" or "Event"
+     * @return the tag's value, or null if the game does not have it
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public ChessGame getGame() {
+        return game;
+    }
+
+    /**
+     * Gets the result of the game. A game the engine has ended is scored by how it
+     * ended; otherwise the Result tag is used, since games can also end by
+     * resignation or on time outside the moves.
+     *
+     * @return "1-0", "0-1", "1/2-1/2" or "*"
+     */
+    public String getResult() {
+        String result = resultOf(game);
+        return result.equals(UNFINISHED) ? tags.getOrDefault("Result", UNFINISHED) : result;
+    }
+
+    /**
+     * @param game any game
+     * @return the PGN result token for how the game ended, or "*" if it is in progress or ended without a recorded reason
+     */
+    public static String resultOf(ChessGame game) {
+        if (!game.isGameOver()) {
+            return UNFINISHED;
+        }
+        if (game.getWinner() == ChessGame.TeamColor.WHITE) {
+            return WHITE_WINS;
+        }
+        if (game.getWinner() == ChessGame.TeamColor.BLACK) {
+            return BLACK_WINS;
+        }
+        return game.getTermination() != null && game.getTermination().isDraw() ? DRAW : UNFINISHED;
+    }
+}
@@ -0,0 +1,358 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.GameTermination;
+import chess.InvalidMoveException;
+import chess.Notation;
+import chess.PackedMove;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads games one at a time from PGN text, so files of any size can be processed
+ * with memory bounded by the longest single game. Every move of the main line is
+ * checked and made through the engine; comments, variations, numeric annotation
+ * glyphs and escape lines are skipped. A game with a malformed tag or an illegal
+ * move is rejected with a {@link PgnException} and the reader moves on to the
+ * next game, so one bad game does not stop a whole collection from loading.
+ */
+public class PgnReader implements Closeable {
+    /**
+     * The longest tag or move text token accepted, so a corrupt file cannot grow a token without bound
+     */
+    static final int MAX_TOKEN_LENGTH = 4096;
+
+    private static final int NONE = -2;
+
+    private final Reader in;
+    private final StringBuilder token = new StringBuilder(64);
+    private int pushedBack = NONE;
+    private long lineNumber = 1;
+    private long gamesRead;
+    private long movesRead;
+
+    public PgnReader(Reader in) {
+        this.in = (in instanceof BufferedReader) ? in : new BufferedReader(in, 1 << 16);
+    }
+
+    /**
+     * Reads the next game
+     *
+     * @return the game, with all its moves made, or null at the end of the input
+     * @throws PgnException if the game is malformed or has an illegal move; the rest of it is skipped
+     * @throws IOException if the input cannot be read
+     */
+    public PgnGame next() throws IOException, PgnException {
+        int c = skipSeparators();
+        if (c == -1) {
+            return null;
+        }
+        Map<String, String> tags = new LinkedHashMap<>();
+        boolean inMovetext = false;
+        try {
+            while (c == '[') {
+                readTag(tags);
+                c = skipSeparators();
+            }
+            inMovetext = true;
+            ChessGame game = startingGame(tags);
+            while (c != -1) {
+                if (c == '[') {
+                    unread(c);
+                    break;
+                } else if (c == '(') {
+                    skipVariation();
+                } else if (c == '$') {
+                    readSymbol(read());
+                } else if (c == ')') {
+                    throw new PgnException("Unbalanced ')'", lineNumber);
+                } else {
+                    String symbol = readSymbol(c);
+                    if (isResult(symbol)) {
+                        checkResult(game, symbol);
+                        tags.put("Result", symbol);
+                        break;
+                    }
+                    String san = stripMoveNumber(symbol);
+                    if (!san.isEmpty()) {
+                        play(game, san);
+                    }
+                }
+                c = skipSeparators();
+            }
+            gamesRead++;
+            return new PgnGame(tags, game);
+        } catch (PgnException e) {
+            skipGame(inMovetext);
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of games read successfully so far
+     */
+    public long getGamesRead() {
+        return gamesRead;
+    }
+
+    /**
+     * @return the number of moves made while reading, including moves of games later rejected
+     */
+    public long getMovesRead() {
+        return movesRead;
+    }
+
+    /**
+     * @return the line the reader is on, counting from 1
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private ChessGame startingGame(Map<String, String> tags) throws PgnException {
+        String fen = tags.get("FEN");
+        if (fen == null) {
+            return new ChessGame();
+        }
+        try {
+            return ChessGame.fromFen(fen);
+        } catch (IllegalArgumentException e) {
+            throw new PgnException(e.getMessage(), lineNumber);
+        }
+    }
+
+    /**
+     * Makes a SAN move. Games recorded by people often continue past a repetition the
+     * engine would already have drawn, so once the engine has ended a game the
+     * remaining legal moves are still made.
+     */
+    private void play(ChessGame game, String san) throws PgnException {
+        try {
+            ChessMove move = Notation.parseSan(game, san);
+            if (game.isGameOver()) {
+                int packed = game.findLegalMove(move);
+                if (packed == PackedMove.NONE) {
+                    throw new InvalidMoveException("Illegal move: " + san);
+                }
+                game.doMove(packed);
+            } else {
+                game.makeMove(move);
+            }
+            movesRead++;
+        } catch (InvalidMoveException e) {
+            throw new PgnException(e.getMessage(), lineNumber);
+        }
+    }
+
+    private void checkResult(ChessGame game, String result) throws PgnException {
+        if (game.getTermination() == GameTermination.CHECKMATE && !PgnGame.resultOf(game).equals(result)) {
+            throw new PgnException("Result " + result + " contradicts " + game.getTermination(), lineNumber);
+        }
+    }
+
+    private void readTag(Map<String, String> tags) throws IOException, PgnException {
+        int c = skipSpaces();
+        token.setLength(0);
+        while (Character.isLetterOrDigit(c) || c == '_') {
+            append(c);
+            c = read();
+        }
+        if (token.isEmpty()) {
+            throw new PgnException("Missing tag name", lineNumber);
+        }
+        String name = token.toString();
+        unread(c);
+        if (skipSpaces() != '"') {
+            throw new PgnException("Missing value for tag " + name, lineNumber);
+        }
+        token.setLength(0);
+        for (c = read(); c != '"'; c = read()) {
+            if (c == '\\') {
+                c = read();
+            }
+            if (c == -1 || c == '\n') {
+                throw new PgnException("Unterminated value for tag " + name, lineNumber);
+            }
+            append(c);
+        }
+        if (skipSpaces() != ']') {
+            throw new PgnException("Missing ']' after tag " + name, lineNumber);
+        }
+        tags.put(name, token.toString());
+    }
+
+    private String readSymbol(int c) throws IOException, PgnException {
+        token.setLength(0);
+        while (c != -1 && isSymbolChar(c)) {
+            append(c);
+            c = read();
+        }
+        unread(c);
+        if (token.isEmpty()) {
+            throw new PgnException("Unexpected character '" + (char) c + "'", lineNumber);
+        }
+        return token.toString();
+    }
+
+    private void append(int c) throws PgnException {
+        if (token.length() == MAX_TOKEN_LENGTH) {
+            throw new PgnException("Token longer than " + MAX_TOKEN_LENGTH + " characters", lineNumber);
+        }
+        token.append((char) c);
+    }
+
+    /**
+     * Skips a variation whose '(' has been read, along with any variations and comments nested in it
+     */
+    private void skipVariation() throws IOException, PgnException {
+        int depth = 1;
+        while (depth > 0) {
+            int c = read();
+            if (c == -1) {
+                throw new PgnException("Unterminated variation", lineNumber);
+            } else if (c == '{') {
+                skipComment();
+            } else if (c == ';') {
+                skipLine();
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Skips the rest of a rejected game: any remaining tags, then the move text up to
+     * its result or the tags of the next game. Anything malformed on the way is
+     * skipped too; every error consumes input, so this always ends.
+     */
+    private void skipGame(boolean inMovetext) throws IOException {
+        while (true) {
+            try {
+                for (int c = skipSeparators(); c != -1; c = skipSeparators()) {
+                    if (c == '[') {
+                        if (inMovetext) {
+                            unread(c);
+                            return;
+                        }
+                        skipLine();
+                    } else if (c == '(') {
+                        skipVariation();
+                    } else if (isSymbolChar(c)) {
+                        inMovetext = true;
+                        if (isResult(readSymbol(c))) {
+                            return;
+                        }
+                    }
+                }
+                return;
+            } catch (PgnException e) {
+                inMovetext = true;
+            }
+        }
+    }
+
+    /**
+     * Skips whitespace, comments and escape lines
+     *
+     * @return the next character after them, or -1 at the end of the input
+     */
+    private int skipSeparators() throws IOException, PgnException {
+        while (true) {
+            int c = read();
+            if (c == '{') {
+                skipComment();
+            } else if (c == ';' || c == '%') {
+                skipLine();
+            } else if (c == -1 || !Character.isWhitespace(c)) {
+                return c;
+            }
+        }
+    }
+
+    private int skipSpaces() throws IOException {
+        int c = read();
+        while (c == ' ' || c == '\t') {
+            c = read();
+        }
+        return c;
+    }
+
+    private void skipComment() throws IOException, PgnException {
+        for (int c = read(); c != '}'; c = read()) {
+            if (c == -1) {
+                throw new PgnException("Unterminated comment", lineNumber);
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c = read();
+        while (c != '\n' && c != -1) {
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c = pushedBack;
+        if (c == NONE) {
+            c = in.read();
+        } else {
+            pushedBack = NONE;
+        }
+        if (c == '\n') {
+            lineNumber++;
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        if (c == '\n') {
+            lineNumber--;
+        }
+        pushedBack = c;
+    }
+
+    private static boolean isSymbolChar(int c) {
+        return Character.isLetterOrDigit(c) || "_+#=:-/!?.*".indexOf(c) >= 0;
+    }
+
+    private static boolean isResult(String symbol) {
+        return symbol.equals(PgnGame.WHITE_WINS) || symbol.equals(PgnGame.BLACK_WINS)
+                || symbol.equals(PgnGame.DRAW) || symbol.equals(PgnGame.UNFINISHED);
+    }
+
+    /**
+     * Removes a move number such as "12." or "12..." from the front of a symbol
+     *
+     * @return the move that followed the number, which is empty if it was written separately
+     */
+    private static String stripMoveNumber(String symbol) {
+        int i = 0;
+        while (i < symbol.length() && Character.isDigit(symbol.charAt(i))) {
+            i++;
+        }
+        if (i == symbol.length()) {
+            return "";
+        }
+        if (i > 0 && symbol.charAt(i) != '.') {
+            return symbol;
+        }
+        while (i < symbol.length() && symbol.charAt(i) == '.') {
+            i++;
+        }
+        return symbol.substring(i);
+    }
+}
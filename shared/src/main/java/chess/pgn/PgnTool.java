@@ -0,0 +1,68 @@
+package chess.pgn;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Validates a PGN file by making every move through the engine, optionally writing
+ * the valid games back out in export format, and reports throughput in games per
+ * second as it goes
+ */
+public final class PgnTool {
+    private static final long PROGRESS_INTERVAL = 100_000;
+
+    private PgnTool() {
+    }
+
+    /**
+     * Usage: {@code PgnTool <input.pgn> [output.pgn]}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: PgnTool <input.pgn> [output.pgn]");
+            System.exit(2);
+        }
+        Path input = Path.of(args[0]);
+        Path output = args.length > 1 ? Path.of(args[1]) : null;
+
+        long rejected = 0;
+        long start = System.nanoTime();
+        try (Reader in = Files.newBufferedReader(input, StandardCharsets.ISO_8859_1);
+             PgnReader reader = new PgnReader(in);
+             Writer out = output == null ? Writer.nullWriter()
+                     : new BufferedWriter(Files.newBufferedWriter(output, StandardCharsets.ISO_8859_1), 1 << 16);
+             PgnWriter writer = new PgnWriter(out)) {
+            while (true) {
+                PgnGame game;
+                try {
+                    game = reader.next();
+                } catch (PgnException e) {
+                    rejected++;
+                    System.err.println(input + ": " + e.getMessage());
+                    continue;
+                }
+                if (game == null) {
+                    break;
+                }
+                if (output != null) {
+                    writer.write(game);
+                }
+                if (reader.getGamesRead() % PROGRESS_INTERVAL == 0) {
+                    report(reader, rejected, start);
+                }
+            }
+            report(reader, rejected, start);
+        }
+    }
+
+    private static void report(PgnReader reader, long rejected, long start) {
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+        System.out.printf("%,d games  %,d moves  %,d rejected  %.1f s  %,.0f games/s%n", reader.getGamesRead(),
+                reader.getMovesRead(), rejected, seconds, reader.getGamesRead() / seconds);
+    }
+}
@@ -0,0 +1,133 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.Notation;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes games as PGN text, one at a time, in the export format: the Seven Tag
+ * Roster first, a FEN tag for games that did not start from the standard position,
+ * and move text in SAN wrapped at 80 columns
+ */
+public class PgnWriter implements Closeable, Flushable {
+    static final int LINE_LENGTH = 80;
+
+    private static final String START_FEN = new ChessGame().toFen();
+    private static final List<String> SEVEN_TAG_ROSTER =
+            List.of("Event", "Site", "Date", "Round", "White", "Black", "Result");
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(LINE_LENGTH + 16);
+    private long gamesWritten;
+
+    public PgnWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes a game with the tags it was read with
+     *
+     * @param game the game to write
+     * @throws IOException if the output cannot be written
+     */
+    public void write(PgnGame game) throws IOException {
+        write(game.getTags(), game.getGame());
+    }
+
+    /**
+     * Writes every move made in a game, from the position it started in. Tags of the
+     * Seven Tag Roster that are missing are written as unknown, and the Result tag
+     * is taken from the game when the engine ended it.
+     *
+     * @param tags the tag pairs to write, such as "White" and "Event"
+     * @param game the game to write, which is left unchanged; moves that were undone are not written
+     * @throws IOException if the output cannot be written
+     */
+    public void write(Map<String, String> tags, ChessGame game) throws IOException {
+        String result = PgnGame.resultOf(game);
+        if (result.equals(PgnGame.UNFINISHED)) {
+            result = tags.getOrDefault("Result", PgnGame.UNFINISHED);
+        }
+
+        ChessGame replay = new ChessGame(game);
+        int moves = 0;
+        while (replay.canUndo()) {
+            replay.undoMove();
+            moves++;
+        }
+        String fen = replay.toFen();
+
+        for (String name : SEVEN_TAG_ROSTER) {
+            String value = name.equals("Result") ? result : tags.get(name);
+            writeTag(name, value != null ? value : name.equals("Date") ? "????.??.??" : "?");
+        }
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            String name = tag.getKey();
+            if (!SEVEN_TAG_ROSTER.contains(name) && !name.equals("SetUp") && !name.equals("FEN")) {
+                writeTag(name, tag.getValue());
+            }
+        }
+        if (!fen.equals(START_FEN)) {
+            writeTag("SetUp", "1");
+            writeTag("FEN", fen);
+        }
+        out.write('\n');
+
+        line.setLength(0);
+        for (int i = 0; i < moves; i++) {
+            int number = replay.getFullmoveNumber();
+            if (replay.getTeamTurn() == ChessGame.TeamColor.WHITE) {
+                writeWord(number + ".");
+            } else if (i == 0) {
+                writeWord(number + "...");
+            }
+            replay.redoMove();
+            writeWord(Notation.lastMoveToSan(replay));
+        }
+        writeWord(result);
+        out.write(line.append('\n').append('\n').toString());
+        gamesWritten++;
+    }
+
+    /**
+     * @return the number of games written so far
+     */
+    public long getGamesWritten() {
+        return gamesWritten;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeTag(String name, String value) throws IOException {
+        out.write('[');
+        out.write(name);
+        out.write(" \"");
+        out.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+        out.write("\"]\n");
+    }
+
+    private void writeWord(String word) throws IOException {
+        if (!line.isEmpty() && line.length() + 1 + word.length() > LINE_LENGTH) {
+            out.write(line.append('\n').toString());
+            line.setLength(0);
+        }
+        if (!line.isEmpty()) {
+            line.append(' ');
+        }
+        line.append(word);
+    }
+}
@@ -0,0 +1,31 @@
+package chess.piecemoves;
+
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.bitboard.Bitboards;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+final class BitboardMoves {
+
+    private BitboardMoves() {
+    }
+
+    /**
+     * Builds a move from the start position to each square in a target bitboard
+     *
+     * @param startPosition the position of the moving piece
+     * @param targets bitboard of squares the piece can move to
+     * @return a collection with one non-promoting move per target square
+     */
+    static Collection<ChessMove> toMoves(ChessPosition startPosition, long targets) {
+        Collection<ChessMove> moves = new ArrayList<>(Long.bitCount(targets));
+        while (targets != 0) {
+            int square = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(new ChessMove(startPosition, Bitboards.position(square), null));
+        }
+        return moves;
+    }
+}
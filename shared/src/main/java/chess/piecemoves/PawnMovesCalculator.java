@@ -1,6 +1,9 @@
 package chess.piecemoves;
 
 import chess.*;
+import chess.bitboard.AttackTables;
+import chess.bitboard.Bitboards;
+
 import java.util.ArrayList;
 import java.util.Collection;
 
@@ -47,7 +50,7 @@ class PawnMovesCalculator implements PieceMovesCalculator {
         int targetRow = startPosition.getRow() + forward;
         int targetCol = startPosition.getColumn();
 
-        ChessPosition targetPosition = new ChessPosition(targetRow, targetCol);
+        ChessPosition targetPosition = ChessPosition.of(targetRow, targetCol);
         ChessPiece pieceAtTarget = board.getPiece((targetPosition));
 
         if (pieceAtTarget == null) {
@@ -84,8 +87,8 @@ class PawnMovesCalculator implements PieceMovesCalculator {
         int targetRow = startRow + 2 * forward;
         int targetCol = startPosition.getColumn();
 
-        ChessPosition middlePos = new ChessPosition(middleRow, targetCol);
-        ChessPosition targetPos = new ChessPosition(targetRow, targetCol);
+        ChessPosition middlePos = ChessPosition.of(middleRow, targetCol);
+        ChessPosition targetPos = ChessPosition.of(targetRow, targetCol);
 
         if (board.getPiece(middlePos) == null && board.getPiece(targetPos) == null) {
             moves.add(new ChessMove(startPosition, targetPos, null));
@@ -107,23 +110,19 @@ class PawnMovesCalculator implements PieceMovesCalculator {
             Collection<ChessMove> moves,
             ChessGame.TeamColor teamColor) {
 
-        int targetRow = startPosition.getRow() + forward;
+        int color = Bitboards.colorIndex(teamColor);
+        long targets = AttackTables.pawnAttacks(color, Bitboards.square(startPosition))
+                & board.getColorBitboard(color ^ 1);
 
-        for (int direction : new int[]{-1, 1}) {
-            int targetCol = startPosition.getColumn() + direction;
-            if (!isOnBoard(targetRow, targetCol)) {
-                continue;
-            }
+        while (targets != 0) {
+            int targetSquare = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
 
-            ChessPosition targetPosition = new ChessPosition(targetRow, targetCol);
-            ChessPiece pieceAtTarget = board.getPiece(targetPosition);
-
-            if (pieceAtTarget != null && pieceAtTarget.getTeamColor() != teamColor) {
-                if (isPromotionRow(targetRow, forward)) {
-                    addPromotionMoves(startPosition, targetPosition, moves);
-                } else {
-                    moves.add(new ChessMove(startPosition, targetPosition, null));
-                }
+            ChessPosition targetPosition = Bitboards.position(targetSquare);
+            if (isPromotionRow(targetPosition.getRow(), forward)) {
+                addPromotionMoves(startPosition, targetPosition, moves);
+            } else {
+                moves.add(new ChessMove(startPosition, targetPosition, null));
             }
         }
     }
@@ -146,18 +145,6 @@ class PawnMovesCalculator implements PieceMovesCalculator {
             moves.add(new ChessMove(startPosition, targetPosition, ChessPiece.PieceType.KNIGHT));
         }
 
-        /**
-         * Determines if a specific square is within the bounds of a chess board
-         *
-         * @param row the row of the board
-         * @param col the column of the board
-         * @return bool value of if the square is within the bounds of a chess board
-         */
-        private boolean isOnBoard(int row, int col){
-            return row >= 1 && row <= 8 && col >= 1 && col <= 8;
-        }
-
-
     /**
      * Determines if a row is a promotion row
      *
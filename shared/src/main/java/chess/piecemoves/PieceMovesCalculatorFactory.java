@@ -3,14 +3,28 @@ package chess.piecemoves;
 import chess.ChessPiece;
 
 public class PieceMovesCalculatorFactory {
+    private static final PieceMovesCalculator KING = new KingMovesCalculator();
+    private static final PieceMovesCalculator QUEEN = new QueenMovesCalculator();
+    private static final PieceMovesCalculator BISHOP = new BishopMovesCalculator();
+    private static final PieceMovesCalculator KNIGHT = new KnightMovesCalculator();
+    private static final PieceMovesCalculator ROOK = new RookMovesCalculator();
+    private static final PieceMovesCalculator PAWN = new PawnMovesCalculator();
+
+    /**
+     * Gets the calculator for a piece type. Calculators hold no state, so one
+     * shared instance per type is returned.
+     *
+     * @param type the type of piece
+     * @return the calculator for that type
+     */
     public static PieceMovesCalculator getType(ChessPiece.PieceType type) {
         return switch (type) {
-            case KING -> new KingMovesCalculator();
-            case QUEEN -> new QueenMovesCalculator();
-            case BISHOP -> new BishopMovesCalculator();
-            case KNIGHT -> new KnightMovesCalculator();
-            case ROOK -> new RookMovesCalculator();
-            case PAWN -> new PawnMovesCalculator();
+            case KING -> KING;
+            case QUEEN -> QUEEN;
+            case BISHOP -> BISHOP;
+            case KNIGHT -> KNIGHT;
+            case ROOK -> ROOK;
+            case PAWN -> PAWN;
         };
     }
 }
@@ -3,8 +3,9 @@ package chess.piecemoves;
 import chess.ChessBoard;
 import chess.ChessMove;
 import chess.ChessPosition;
+import chess.bitboard.Bitboards;
+import chess.bitboard.SlidingAttacks;
 
-import java.util.ArrayList;
 import java.util.Collection;
 
 class RookMovesCalculator implements PieceMovesCalculator {
@@ -18,15 +19,9 @@ class RookMovesCalculator implements PieceMovesCalculator {
      */
     @Override
     public Collection<ChessMove> calcMoves(ChessBoard board, ChessPosition startPosition) {
-        Collection<ChessMove> moves = new ArrayList<>();
-
-        moves.addAll(SlidingMovesCalculator.slidingMovesHelper(board, startPosition, 1, 0));
-        moves.addAll(SlidingMovesCalculator.slidingMovesHelper(board, startPosition, -1, 0));
-        moves.addAll(SlidingMovesCalculator.slidingMovesHelper(board, startPosition, 0, 1));
-        moves.addAll(SlidingMovesCalculator.slidingMovesHelper(board, startPosition, 0, -1));
-
-        return moves;
+        int square = Bitboards.square(startPosition);
+        int color = Bitboards.colorOf(board.pieceAt(square));
+        long targets = SlidingAttacks.rookAttacks(square, board.getOccupied()) & ~board.getColorBitboard(color);
+        return BitboardMoves.toMoves(startPosition, targets);
     }
 }
-
-
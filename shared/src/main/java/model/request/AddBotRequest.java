@@ -0,0 +1,4 @@
+package model.request;
+
+public record AddBotRequest(String authToken, String playerColor, Integer gameID, String difficulty) {
+}
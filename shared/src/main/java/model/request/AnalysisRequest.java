@@ -0,0 +1,5 @@
+package model.request;
+
+public record AnalysisRequest(String authToken, Integer gameID, String fen, Integer depth, Long timeMillis,
+                              Boolean stream) {
+}
@@ -0,0 +1,4 @@
+package model.result;
+
+public record AddBotResult(String username) {
+}
@@ -0,0 +1,7 @@
+package model.result;
+
+import java.util.List;
+
+public record AnalysisResult(String fen, String bestMove, int score, Integer mateIn, int depth, long nodes,
+                             List<String> principalVariation) {
+}
@@ -0,0 +1,7 @@
+package websocket.commands;
+
+public class ClaimDrawCommand extends UserGameCommand {
+    public ClaimDrawCommand(String authToken, Integer gameID) {
+        super(CommandType.CLAIM_DRAW, authToken, gameID);
+    }
+}
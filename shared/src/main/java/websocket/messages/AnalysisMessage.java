@@ -0,0 +1,16 @@
+package websocket.messages;
+
+import model.result.AnalysisResult;
+
+public class AnalysisMessage extends ServerMessage {
+    private AnalysisResult analysis;
+
+    public AnalysisMessage(AnalysisResult analysis) {
+        super(ServerMessageType.ANALYSIS);
+        this.analysis = analysis;
+    }
+
+    public AnalysisResult getAnalysis() {
+        return analysis;
+    }
+}
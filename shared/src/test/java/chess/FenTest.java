@@ -0,0 +1,99 @@
+package chess;
+
+import chess.perft.PerftPosition;
+import chess.perft.PerftSuite;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FenTest {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    @Test
+    @DisplayName("Start Position")
+    public void startPosition() {
+        ChessGame game = ChessGame.fromFen(START);
+        Assertions.assertEquals(new ChessGame(), game);
+        Assertions.assertEquals(new ChessGame().getZobristKey(), game.getZobristKey());
+        Assertions.assertEquals(START, new ChessGame().toFen());
+    }
+
+    @Test
+    @DisplayName("Round Trip Reference Positions")
+    public void roundTrip() {
+        for (PerftPosition position : PerftSuite.ALL) {
+            Assertions.assertEquals(position.fen(), ChessGame.fromFen(position.fen()).toFen());
+        }
+    }
+
+    @Test
+    @DisplayName("Board Placement")
+    public void boardPlacement() {
+        ChessBoard board = ChessBoard.fromFen("8/8/8/4k3/8/8/8/R3K3 w Q - 0 1");
+        Assertions.assertEquals(ChessPiece.PieceType.KING, board.getPiece(new ChessPosition(5, 5)).getPieceType());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, board.getPiece(new ChessPosition(5, 5)).getTeamColor());
+        Assertions.assertEquals(ChessPiece.PieceType.ROOK, board.getPiece(new ChessPosition(1, 1)).getPieceType());
+        Assertions.assertEquals("8/8/8/4k3/8/8/8/R3K3", board.toFen());
+    }
+
+    @Test
+    @DisplayName("Moves Update Every Field")
+    public void movesUpdateFields() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        Assertions.assertEquals("rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3", game.toFen());
+
+        game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5), null));
+        Assertions.assertEquals("rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPPKPPP/RNBQ1BNR b kq - 1 3", game.toFen());
+
+        ChessGame loaded = ChessGame.fromFen(game.toFen());
+        Assertions.assertEquals(game, loaded);
+        Assertions.assertEquals(game.getZobristKey(), loaded.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("En Passant Square Kept Only When Capturable")
+    public void enPassantSquare() {
+        ChessGame capturable = ChessGame.fromFen("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1");
+        Assertions.assertTrue(capturable.validMoves(new ChessPosition(5, 5))
+                .contains(new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 4), null)));
+
+        ChessGame uncapturable = ChessGame.fromFen("4k3/8/8/3p4/8/8/8/4K3 w - d6 0 1");
+        Assertions.assertEquals("4k3/8/8/3p4/8/8/8/4K3 w - - 0 1", uncapturable.toFen());
+    }
+
+    @Test
+    @DisplayName("Clocks Are Optional")
+    public void clocksOptional() {
+        Assertions.assertEquals(START, ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -").toFen());
+    }
+
+    @Test
+    @DisplayName("Huge Halfmove Clock Is Capped")
+    public void halfmoveCapped() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R w - - 99999999999 40");
+        Assertions.assertTrue(game.toFen().endsWith(" 255 40"));
+        String fen = game.toFen();
+        game.makeMove(new ChessMove(new ChessPosition(1, 8), new ChessPosition(2, 8), null));
+        game.undoMove();
+        Assertions.assertEquals(fen, game.toFen());
+    }
+
+    @Test
+    @DisplayName("Malformed FEN")
+    public void malformed() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(""));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8 w - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("9/8/8/8/8/8/8/8 w - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/7X w - - 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(START.replace(" w ", " x ")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(START.replace("KQkq", "KQxq")));
+        // an en passant square behind the team to move, which would let it capture its own king
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("4k3/8/8/8/8/8/3PK3/8 w - e3 0 1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 99999999999"));
+    }
+}
@@ -0,0 +1,123 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+public class GameTerminationTest {
+
+    private static void move(ChessGame game, int startRow, int startCol, int endRow, int endCol)
+            throws InvalidMoveException {
+        game.makeMove(new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null));
+    }
+
+    @Test
+    @DisplayName("Threefold Repetition")
+    public void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 2; i++) {
+            move(game, 1, 7, 3, 6);
+            move(game, 8, 7, 6, 6);
+            move(game, 3, 6, 1, 7);
+            Assertions.assertFalse(game.isGameOver());
+            move(game, 6, 6, 8, 7);
+        }
+        Assertions.assertEquals(3, game.repetitionCount());
+        Assertions.assertTrue(game.isGameOver());
+        Assertions.assertEquals(GameTermination.THREEFOLD_REPETITION, game.getTermination());
+        Assertions.assertNull(game.getWinner());
+    }
+
+    @Test
+    @DisplayName("Pawn Move Resets Repetition and Halfmove Clock")
+    public void pawnMoveResets() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        move(game, 1, 7, 3, 6);
+        move(game, 8, 7, 6, 6);
+        move(game, 3, 6, 1, 7);
+        move(game, 6, 6, 8, 7);
+        Assertions.assertEquals(4, game.getHalfmoveClock());
+        Assertions.assertEquals(2, game.repetitionCount());
+
+        move(game, 2, 5, 4, 5);
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(1, game.repetitionCount());
+    }
+
+    @Test
+    @DisplayName("Insufficient Material")
+    public void insufficientMaterial() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | |b| | | | | | |
+                | | | |N| | | | |
+                | | | | |K| | | |
+                """));
+        Assertions.assertFalse(game.hasInsufficientMaterial());
+
+        move(game, 2, 4, 3, 2);
+        Assertions.assertTrue(game.isGameOver());
+        Assertions.assertEquals(GameTermination.INSUFFICIENT_MATERIAL, game.getTermination());
+    }
+
+    @Test
+    @DisplayName("Same Colored Bishops Cannot Mate")
+    public void sameColoredBishops() {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | |b| | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | |B| |K| | | |
+                """));
+        Assertions.assertTrue(game.hasInsufficientMaterial());
+    }
+
+    @Test
+    @DisplayName("Fifty and Seventy-Five Move Rules")
+    public void moveRules() throws InvalidMoveException {
+        ChessGame game = withHalfmoveClock(new ChessGame(), ChessGame.FIFTY_MOVE_LIMIT - 1);
+        Assertions.assertFalse(game.claimDraw());
+        move(game, 1, 7, 3, 6);
+        Assertions.assertFalse(game.isGameOver());
+        Assertions.assertTrue(game.claimDraw());
+        Assertions.assertEquals(GameTermination.FIFTY_MOVE_RULE, game.getTermination());
+
+        game = withHalfmoveClock(new ChessGame(), ChessGame.SEVENTY_FIVE_MOVE_LIMIT - 1);
+        move(game, 1, 7, 3, 6);
+        Assertions.assertTrue(game.isGameOver());
+        Assertions.assertEquals(GameTermination.SEVENTY_FIVE_MOVE_RULE, game.getTermination());
+    }
+
+    /**
+     * Round trips a game through JSON with its halfmove clock replaced, the way a stored game is loaded
+     */
+    private static ChessGame withHalfmoveClock(ChessGame game, int halfmoveClock) {
+        Gson gson = new Gson();
+        JsonObject json = gson.toJsonTree(game).getAsJsonObject();
+        json.addProperty("halfmoveClock", halfmoveClock);
+        return gson.fromJson(json, ChessGame.class);
+    }
+
+    @Test
+    @DisplayName("Resignation")
+    public void resignation() {
+        ChessGame game = new ChessGame();
+        game.resign(ChessGame.TeamColor.BLACK);
+        Assertions.assertTrue(game.isGameOver());
+        Assertions.assertEquals(GameTermination.RESIGNATION, game.getTermination());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getWinner());
+    }
+}
@@ -0,0 +1,80 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class JsonTest {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    @DisplayName("Games Survive A Round Trip")
+    public void roundTrip() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+
+        String json = gson.toJson(game);
+        Assertions.assertFalse(json.contains("colorBitboards"), "Derived board state should not be stored");
+        ChessGame restored = gson.fromJson(json, ChessGame.class);
+        Assertions.assertEquals(game.getBoard(), restored.getBoard());
+        Assertions.assertEquals(game.toFen(), restored.toFen());
+        Assertions.assertEquals(game.legalMoves().size(), restored.legalMoves().size());
+        Assertions.assertEquals(game.getBoard().getMiddlegameScore(), restored.getBoard().getMiddlegameScore());
+    }
+
+    @Test
+    @DisplayName("Boards Stored As Squares Still Load")
+    public void oldLayout() {
+        ChessBoard expected = new ChessBoard();
+        expected.resetBoard();
+        ChessBoard board = gson.fromJson(squaresJson(expected), ChessBoard.class);
+        Assertions.assertEquals(expected, board);
+        Assertions.assertEquals(expected.getPhase(), board.getPhase());
+        Assertions.assertEquals(expected.getKingSquare(0), board.getKingSquare(0));
+    }
+
+    @Test
+    @DisplayName("Games Stored With Moved Flags Keep Their Castling Rights")
+    public void oldCastlingFlags() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        String json = "{\"board\":" + squaresJson(board) + ",\"teamTurn\":\"BLACK\","
+                + "\"whiteKingMoved\":true,\"blackKingMoved\":false,"
+                + "\"whiteKingsideRookMoved\":false,\"blackKingsideRookMoved\":true,"
+                + "\"whiteQueensideRookMoved\":false,\"blackQueensideRookMoved\":false,\"gameOver\":false}";
+
+        ChessGame game = gson.fromJson(json, ChessGame.class);
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR b q - 0 1", game.toFen());
+
+        // a game with no flags moved keeps every right
+        ChessGame fresh = gson.fromJson(json.replace("true", "false"), ChessGame.class);
+        Assertions.assertTrue(fresh.toFen().contains(" KQkq "));
+    }
+
+    @Test
+    @DisplayName("Overlapping Pieces Are Rejected")
+    public void overlapping() {
+        Assertions.assertThrows(RuntimeException.class,
+                () -> gson.fromJson("{\"pieceBitboards\":[1,1,0,0,0,0,0,0,0,0,0,0]}", ChessBoard.class));
+    }
+
+    /**
+     * Writes a board the way boards were stored before they held bitboards
+     */
+    private static String squaresJson(ChessBoard board) {
+        StringBuilder squares = new StringBuilder("{\"squares\":[");
+        for (int row = 1; row <= 8; row++) {
+            squares.append(row > 1 ? ",[" : "[");
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+                squares.append(col > 1 ? "," : "").append(piece == null ? "null"
+                        : "{\"pieceColor\":\"" + piece.getTeamColor() + "\",\"type\":\"" + piece.getPieceType() + "\"}");
+            }
+            squares.append(']');
+        }
+        return squares.append("]}").toString();
+    }
+}
@@ -0,0 +1,45 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LegalMoveCacheTest {
+
+    @Test
+    @DisplayName("Editing the Board Invalidates Cached Moves")
+    public void boardEditInvalidates() {
+        ChessGame game = new ChessGame();
+        ChessPosition knight = new ChessPosition(1, 2);
+        Assertions.assertEquals(2, game.validMoves(knight).size());
+
+        game.getBoard().addPiece(new ChessPosition(3, 1),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        Assertions.assertEquals(1, game.validMoves(knight).size());
+    }
+
+    @Test
+    @DisplayName("Moves and Undo Invalidate Cached Moves")
+    public void moveAndUndoInvalidate() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(20, game.legalMoves().size());
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals(20, game.legalMoves().size());
+        Assertions.assertEquals(5, game.validMoves(new ChessPosition(1, 6)).size());
+
+        game.undoMove();
+        Assertions.assertEquals(0, game.validMoves(new ChessPosition(1, 6)).size());
+        Assertions.assertEquals(20, game.legalMoves().size());
+    }
+
+    @Test
+    @DisplayName("Both Teams Are Cached Separately")
+    public void bothTeams() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(2, game.validMoves(new ChessPosition(8, 7)).size());
+        Assertions.assertEquals(2, game.validMoves(new ChessPosition(1, 7)).size());
+        Assertions.assertFalse(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(game.isInStalemate(ChessGame.TeamColor.WHITE));
+    }
+}
@@ -0,0 +1,91 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class MoveHistoryTest {
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null);
+    }
+
+    @Test
+    @DisplayName("Undo and Redo")
+    public void undoRedo() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessGame start = new ChessGame();
+        game.makeMove(move(2, 5, 4, 5));
+        game.makeMove(move(7, 4, 5, 4));
+        game.makeMove(move(4, 5, 5, 4));
+        ChessGame afterCapture = new ChessGame(game);
+
+        game.undoMove();
+        game.undoMove();
+        game.undoMove();
+        Assertions.assertEquals(start, game);
+        Assertions.assertEquals(start.getZobristKey(), game.getZobristKey());
+        Assertions.assertFalse(game.canUndo());
+
+        game.redoMove();
+        game.redoMove();
+        game.redoMove();
+        Assertions.assertEquals(afterCapture, game);
+        Assertions.assertEquals(afterCapture.getZobristKey(), game.getZobristKey());
+        Assertions.assertFalse(game.canRedo());
+        Assertions.assertThrows(IllegalStateException.class, game::redoMove);
+    }
+
+    @Test
+    @DisplayName("New Move Replaces Redo")
+    public void newMoveReplacesRedo() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 5, 4, 5));
+        game.makeMove(move(7, 5, 5, 5));
+        game.undoMove();
+        Assertions.assertTrue(game.canRedo());
+
+        game.makeMove(move(7, 4, 5, 4));
+        Assertions.assertFalse(game.canRedo());
+        Assertions.assertEquals(List.of(move(2, 5, 4, 5), move(7, 4, 5, 4)), game.getMoveHistory());
+    }
+
+    @Test
+    @DisplayName("History Survives Serialization")
+    public void serializedHistory() throws InvalidMoveException {
+        Gson gson = new Gson();
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 5, 4, 5));
+        game.makeMove(move(7, 4, 5, 4));
+        game.undoMove();
+
+        ChessGame loaded = gson.fromJson(gson.toJson(game), ChessGame.class);
+        Assertions.assertEquals(game.getMoveHistory(), loaded.getMoveHistory());
+        loaded.redoMove();
+        loaded.undoMove();
+        loaded.undoMove();
+        Assertions.assertEquals(new ChessGame(), loaded);
+    }
+
+    @Test
+    @DisplayName("Taking Back Checkmate Reopens the Game")
+    public void takeBackCheckmate() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 6, 3, 6));
+        game.makeMove(move(7, 5, 5, 5));
+        game.makeMove(move(2, 7, 4, 7));
+        game.makeMove(new ChessMove(new ChessPosition(8, 4), new ChessPosition(4, 8), null));
+        Assertions.assertEquals(GameTermination.CHECKMATE, game.getTermination());
+
+        game.undoMove();
+        Assertions.assertFalse(game.isGameOver());
+        Assertions.assertNull(game.getTermination());
+
+        game.redoMove();
+        Assertions.assertTrue(game.isGameOver());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getWinner());
+    }
+}
@@ -0,0 +1,122 @@
+package chess;
+
+import chess.perft.PerftPosition;
+import chess.perft.PerftSuite;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class NotationTest {
+
+    private static ChessMove move(String uci) throws InvalidMoveException {
+        return Notation.parseUci(uci);
+    }
+
+    @Test
+    @DisplayName("UCI Round Trip")
+    public void uci() throws InvalidMoveException {
+        Assertions.assertEquals(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null), move("e2e4"));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1),
+                ChessPiece.PieceType.KNIGHT), move("a7a8n"));
+        Assertions.assertEquals("a7a8n", Notation.toUci(move("a7a8n")));
+        Assertions.assertThrows(InvalidMoveException.class, () -> Notation.parseUci("e2e9"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> Notation.parseUci("Nf3"));
+    }
+
+    @Test
+    @DisplayName("Format SAN")
+    public void formatSan() throws InvalidMoveException {
+        ChessGame start = new ChessGame();
+        Assertions.assertEquals("e4", Notation.toSan(start, move("e2e4")));
+        Assertions.assertEquals("Nf3", Notation.toSan(start, move("g1f3")));
+
+        ChessGame kiwipete = ChessGame.fromFen(PerftSuite.KIWIPETE.fen());
+        Assertions.assertEquals("O-O", Notation.toSan(kiwipete, move("e1g1")));
+        Assertions.assertEquals("O-O-O", Notation.toSan(kiwipete, move("e1c1")));
+        Assertions.assertEquals("Nxf7", Notation.toSan(kiwipete, move("e5f7")));
+        Assertions.assertEquals("dxe6", Notation.toSan(kiwipete, move("d5e6")));
+        Assertions.assertEquals("Qxf6", Notation.toSan(kiwipete, move("f3f6")));
+
+        ChessGame promotions = ChessGame.fromFen("r3k3/1P6/8/8/8/8/8/4K3 w - - 0 1");
+        Assertions.assertEquals("bxa8=Q+", Notation.toSan(promotions, move("b7a8q")));
+        Assertions.assertEquals("b8=N", Notation.toSan(promotions, move("b7b8n")));
+    }
+
+    @Test
+    @DisplayName("Formatting SAN Keeps The Move To Redo")
+    public void sanKeepsRedo() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move("e2e4"));
+        game.makeMove(move("e7e5"));
+        game.undoMove();
+        Assertions.assertEquals("d5", Notation.toSan(game, move("d7d5")));
+        Assertions.assertTrue(game.canRedo());
+        game.redoMove();
+        Assertions.assertEquals(List.of(move("e2e4"), move("e7e5")), game.getMoveHistory());
+    }
+
+    @Test
+    @DisplayName("Disambiguation")
+    public void disambiguation() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/R6R/8/R3K3 w - - 0 1");
+        Assertions.assertEquals("Rhd3", Notation.toSan(game, move("h3d3")));
+        Assertions.assertEquals("R1a2", Notation.toSan(game, move("a1a2")));
+        Assertions.assertEquals("R3a2", Notation.toSan(game, move("a3a2")));
+        ChessGame queens = ChessGame.fromFen("7k/8/8/8/Q1Q5/8/Q7/4K3 w - - 0 1");
+        Assertions.assertEquals("Qa4b3", Notation.toSan(queens, move("a4b3")));
+        Assertions.assertEquals(move("a4b3"), Notation.parseSan(queens, "Qa4b3"));
+        Assertions.assertEquals(move("h3d3"), Notation.parseSan(game, "Rhd3"));
+        Assertions.assertThrows(InvalidMoveException.class, () -> Notation.parseSan(game, "Rd3"));
+    }
+
+    @Test
+    @DisplayName("Check, Mate and En Passant")
+    public void suffixes() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (String san : new String[]{"f3", "e5", "g4"}) {
+            game.makeMove(Notation.parseSan(game, san));
+        }
+        Assertions.assertEquals("Qh4#", Notation.toSan(game, move("d8h4")));
+
+        ChessGame passant = ChessGame.fromFen("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1");
+        Assertions.assertEquals("exd6", Notation.toSan(passant, move("e5d6")));
+        Assertions.assertEquals(move("e5d6"), Notation.parseSan(passant, "exd6"));
+    }
+
+    @Test
+    @DisplayName("Every Legal Move Round Trips")
+    public void roundTrip() throws InvalidMoveException {
+        for (PerftPosition position : PerftSuite.ALL) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            for (ChessMove legal : game.legalMoves()) {
+                String san = Notation.toSan(game, legal);
+                Assertions.assertEquals(legal, Notation.parseSan(game, san), position.name() + " " + san);
+                Assertions.assertEquals(legal, Notation.parseMove(game, Notation.toUci(legal)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Last Move Leaves the Game Unchanged")
+    public void lastMove() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertNull(Notation.lastMoveToSan(game));
+        for (String san : new String[]{"f3", "e5", "g4", "Qh4#"}) {
+            game.makeMove(Notation.parseSan(game, san));
+        }
+        String fen = game.toFen();
+        Assertions.assertEquals("Qh4#", Notation.lastMoveToSan(game));
+        Assertions.assertEquals(fen, game.toFen());
+        Assertions.assertEquals(GameTermination.CHECKMATE, game.getTermination());
+
+        game.undoMove();
+        game.undoMove();
+        Assertions.assertEquals("e5", Notation.lastMoveToSan(game));
+        Assertions.assertTrue(game.canRedo());
+        game.redoMove();
+        game.redoMove();
+        Assertions.assertEquals(fen, game.toFen());
+    }
+}
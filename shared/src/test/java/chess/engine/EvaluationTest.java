@@ -0,0 +1,173 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.bitboard.Bitboards;
+import chess.bitboard.PieceSquareTables;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class EvaluationTest {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    @DisplayName("Incremental Terms Match A Fresh Board")
+    public void incrementalTerms() {
+        Random random = new Random(7);
+        for (String fen : new String[]{new ChessGame().toFen(), KIWIPETE, "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"}) {
+            ChessGame game = ChessGame.fromFen(fen);
+            int[] moves = new int[ChessGame.MAX_MOVES];
+            for (int ply = 0; ply < 200; ply++) {
+                int count = game.generateLegalMoves(moves);
+                if (count == 0) {
+                    break;
+                }
+                game.doMove(moves[random.nextInt(count)]);
+                // unmaking must restore the terms exactly, so step back now and then
+                if (ply % 5 == 4 && game.canUndo()) {
+                    game.undoMove();
+                }
+                assertSameTerms(ChessGame.fromFen(game.toFen()).getBoard(), game.getBoard());
+            }
+            while (game.canUndo()) {
+                game.undoMove();
+            }
+            assertSameTerms(ChessGame.fromFen(fen).getBoard(), game.getBoard());
+        }
+    }
+
+    @Test
+    @DisplayName("Evaluation Is Symmetric")
+    public void symmetric() {
+        Evaluation evaluation = new Evaluation();
+        Assertions.assertEquals(0, evaluation.evaluate(new ChessGame()));
+        for (String fen : new String[]{KIWIPETE, "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                "r1bq1rk1/pp2ppbp/2np1np1/8/3NP3/2N1BP2/PPPQ2PP/R3KB1R w KQ - 3 9"}) {
+            ChessGame game = ChessGame.fromFen(fen);
+            Assertions.assertEquals(evaluation.evaluate(game), evaluation.evaluate(ChessGame.fromFen(mirror(fen))), fen);
+        }
+    }
+
+    @Test
+    @DisplayName("Tapered By Game Phase")
+    public void tapered() {
+        ChessBoard full = new ChessGame().getBoard();
+        Assertions.assertEquals(PieceSquareTables.MAX_PHASE, full.getPhase());
+        ChessBoard bare = ChessGame.fromFen("4k3/pppp4/8/8/8/8/PPPP4/4K3 w - - 0 1").getBoard();
+        Assertions.assertEquals(0, bare.getPhase());
+
+        // with only kings and pawns left, the score is the endgame score
+        Evaluation evaluation = new Evaluation();
+        ChessGame endgame = ChessGame.fromFen("4k3/8/8/8/8/8/P7/4K3 w - - 0 1");
+        ChessBoard board = endgame.getBoard();
+        Assertions.assertEquals(board.getEndgameScore() + Evaluation.pawnStructure(board, false),
+                evaluation.evaluate(endgame));
+    }
+
+    @Test
+    @DisplayName("Pawn Structure")
+    public void pawnStructure() {
+        // white's doubled, isolated c-pawns against black's healthy pair
+        ChessBoard weak = ChessGame.fromFen("4k3/1pp5/8/8/8/2P5/2P5/4K3 w - - 0 1").getBoard();
+        Assertions.assertTrue(Evaluation.pawnStructure(weak, true) < 0);
+        Assertions.assertTrue(Evaluation.pawnStructure(weak, false) < 0);
+
+        // a passed pawn is worth more the further it has gone, and more in the endgame
+        ChessBoard early = ChessGame.fromFen("4k3/8/8/8/8/P7/8/4K3 w - - 0 1").getBoard();
+        ChessBoard late = ChessGame.fromFen("4k3/P7/8/8/8/8/8/4K3 w - - 0 1").getBoard();
+        Assertions.assertTrue(Evaluation.pawnStructure(late, false) > Evaluation.pawnStructure(early, false));
+        Assertions.assertTrue(Evaluation.pawnStructure(late, false) > Evaluation.pawnStructure(late, true));
+
+        // an enemy pawn on an adjacent file ahead stops it being passed
+        ChessBoard blocked = ChessGame.fromFen("4k3/1p6/8/8/8/P7/8/4K3 w - - 0 1").getBoard();
+        Assertions.assertEquals(0, Evaluation.pawnStructure(blocked, false));
+    }
+
+    @Test
+    @DisplayName("King Safety")
+    public void kingSafety() {
+        ChessBoard sheltered = ChessGame.fromFen("6k1/5ppp/8/8/8/8/5PPP/6K1 w - - 0 1").getBoard();
+        ChessBoard exposed = ChessGame.fromFen("6k1/5ppp/8/8/8/5PPP/8/6K1 w - - 0 1").getBoard();
+        ChessBoard open = ChessGame.fromFen("6k1/5ppp/8/8/8/8/P1P5/6K1 w - - 0 1").getBoard();
+        int shelteredScore = Evaluation.kingSafety(sheltered, Bitboards.WHITE);
+        Assertions.assertTrue(shelteredScore > Evaluation.kingSafety(exposed, Bitboards.WHITE));
+        Assertions.assertTrue(Evaluation.kingSafety(exposed, Bitboards.WHITE) > Evaluation.kingSafety(open, Bitboards.WHITE));
+
+        // a queen and a rook bearing down on the king cost more than either alone
+        ChessBoard attacked = ChessGame.fromFen("6k1/8/8/8/8/7q/5PPP/4r1K1 w - - 0 1").getBoard();
+        ChessBoard queenOnly = ChessGame.fromFen("6k1/8/8/8/8/7q/5PPP/6K1 w - - 0 1").getBoard();
+        Assertions.assertTrue(Evaluation.kingSafety(attacked, Bitboards.WHITE)
+                < Evaluation.kingSafety(queenOnly, Bitboards.WHITE));
+    }
+
+    @Test
+    @DisplayName("Pawn Structures Are Cached")
+    public void pawnCache() {
+        PawnHashTable table = new PawnHashTable(1024);
+        Evaluation evaluation = new Evaluation(table);
+        ChessGame game = ChessGame.fromFen(KIWIPETE);
+        int first = evaluation.evaluate(game);
+        Assertions.assertEquals(0, table.getHits());
+        Assertions.assertEquals(first, evaluation.evaluate(game));
+        Assertions.assertEquals(1, table.getHits());
+
+        // the same pawns with the pieces rearranged hit the cache too
+        ChessGame rearranged = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R4RK1 b kq - 1 1");
+        evaluation.evaluate(rearranged);
+        Assertions.assertEquals(2, table.getHits());
+        Assertions.assertEquals(3, table.getProbes());
+
+        // a position with no pawns is not mistaken for a cached one
+        PawnHashTable empty = new PawnHashTable(16);
+        Assertions.assertFalse(empty.probe(ChessGame.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 0 1").getBoard().getPawnKey()));
+    }
+
+    private static void assertSameTerms(ChessBoard expected, ChessBoard actual) {
+        Assertions.assertEquals(expected.getMiddlegameScore(), actual.getMiddlegameScore());
+        Assertions.assertEquals(expected.getEndgameScore(), actual.getEndgameScore());
+        Assertions.assertEquals(expected.getPhase(), actual.getPhase());
+        Assertions.assertEquals(expected.getPawnKey(), actual.getPawnKey());
+    }
+
+    /**
+     * Swaps the colors and flips the board top to bottom, which should exactly negate white's advantage
+     */
+    private static String mirror(String fen) {
+        String[] fields = fen.split(" ");
+        String[] ranks = fields[0].split("/");
+        StringBuilder placement = new StringBuilder();
+        for (int i = ranks.length - 1; i >= 0; i--) {
+            placement.append(swapCase(ranks[i]));
+            if (i > 0) {
+                placement.append('/');
+            }
+        }
+        String turn = fields[1].equals("w") ? "b" : "w";
+        String castling = fields[2].equals("-") ? "-" : sortCastling(swapCase(fields[2]));
+        String enPassant = fields[3].equals("-") ? "-"
+                : fields[3].charAt(0) + String.valueOf(9 - (fields[3].charAt(1) - '0'));
+        return placement + " " + turn + " " + castling + " " + enPassant + " " + fields[4] + " " + fields[5];
+    }
+
+    private static String swapCase(String text) {
+        StringBuilder swapped = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            swapped.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+        }
+        return swapped.toString();
+    }
+
+    private static String sortCastling(String castling) {
+        StringBuilder sorted = new StringBuilder();
+        for (char c : "KQkq".toCharArray()) {
+            if (castling.indexOf(c) >= 0) {
+                sorted.append(c);
+            }
+        }
+        return sorted.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Notation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ParallelSearchTest {
+    private ExecutorService helpers;
+
+    @BeforeEach
+    public void setUp() {
+        helpers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        helpers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Threads Agree On Mate In Two")
+    public void mateInTwo() throws Exception {
+        ChessGame game = ChessGame.fromFen("kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1");
+        ParallelSearch search = new ParallelSearch(new TranspositionTable(4), 3, helpers);
+        SearchResult result = search.search(game, SearchLimits.depth(5));
+        Assertions.assertEquals(Notation.parseUci("a1a6"), result.bestMove());
+        Assertions.assertEquals(2, result.mateIn());
+        Assertions.assertEquals(3, search.getThreads());
+    }
+
+    @Test
+    @DisplayName("Helpers Stop With The Main Search")
+    public void helpersStop() {
+        ChessGame game = new ChessGame();
+        String before = game.toFen();
+        ParallelSearch search = new ParallelSearch(new TranspositionTable(4), 4, helpers);
+
+        long start = System.nanoTime();
+        SearchResult result = search.search(game, SearchLimits.time(200));
+        Assertions.assertTrue((System.nanoTime() - start) / 1_000_000 < 1_000);
+        Assertions.assertTrue(game.legalMoves().contains(result.bestMove()));
+        Assertions.assertEquals(before, game.toFen());
+
+        // the same threads search again after stopping
+        result = search.search(game, SearchLimits.depth(3));
+        Assertions.assertTrue(result.depth() >= 3);
+    }
+
+    @Test
+    @DisplayName("Stop From Another Thread")
+    public void stop() throws Exception {
+        ParallelSearch search = new ParallelSearch(new TranspositionTable(4), 2, helpers);
+        Thread stopper = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {
+            }
+            search.stop();
+        });
+        stopper.start();
+        SearchResult result = search.search(new ChessGame(), SearchLimits.depth(Search.MAX_PLY));
+        stopper.join();
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertTrue(result.depth() < Search.MAX_PLY);
+    }
+
+    @Test
+    @DisplayName("Stop Before Starting")
+    public void stopBeforeStarting() {
+        ParallelSearch search = new ParallelSearch(new TranspositionTable(4), 2, helpers);
+        search.stop();
+        long start = System.nanoTime();
+        SearchResult result = search.search(new ChessGame(), SearchLimits.depth(Search.MAX_PLY));
+        Assertions.assertTrue((System.nanoTime() - start) / 1_000_000 < 1_000);
+        Assertions.assertNotNull(result.bestMove());
+    }
+
+    @Test
+    @DisplayName("Needs A Thread")
+    public void needsAThread() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ParallelSearch(new TranspositionTable(1), 0, helpers));
+    }
+}
@@ -0,0 +1,108 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Notation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SearchTest {
+
+    @Test
+    @DisplayName("Mate In One")
+    public void mateInOne() throws Exception {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        Assertions.assertEquals(Notation.parseUci("a1a8"), result.bestMove());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    @DisplayName("Mate In Two")
+    public void mateInTwo() throws Exception {
+        // Morphy's problem: 1. Ra6 bxa6 2. b7#, and any bishop move allows 2. Rxa7#
+        ChessGame game = ChessGame.fromFen("kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(5));
+        Assertions.assertEquals(Notation.parseUci("a1a6"), result.bestMove());
+        Assertions.assertEquals(2, result.mateIn());
+        Assertions.assertEquals(3, result.principalVariation().size());
+    }
+
+    @Test
+    @DisplayName("Wins Hanging Queen")
+    public void winsHangingQueen() throws Exception {
+        ChessGame game = ChessGame.fromFen("rnb1kbnr/pppp1ppp/8/4p3/4P2q/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        Assertions.assertEquals(Notation.parseUci("f3h4"), result.bestMove());
+        Assertions.assertTrue(result.score() > 500);
+    }
+
+    @Test
+    @DisplayName("Avoids Defended Capture")
+    public void avoidsDefendedCapture() throws Exception {
+        // the pawn on d5 is defended, so taking it with the queen loses her
+        ChessGame game = ChessGame.fromFen("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(4));
+        Assertions.assertNotEquals(Notation.parseUci("d1d5"), result.bestMove());
+        Assertions.assertTrue(result.score() > 600);
+    }
+
+    @Test
+    @DisplayName("No Legal Moves")
+    public void noLegalMoves() {
+        ChessGame game = ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(4));
+        Assertions.assertNull(result.bestMove());
+        Assertions.assertEquals(0, result.score());
+    }
+
+    @Test
+    @DisplayName("Budgets")
+    public void budgets() {
+        ChessGame game = new ChessGame();
+        String before = game.toFen();
+
+        SearchResult byNodes = new Search().search(game, SearchLimits.nodes(20_000));
+        Assertions.assertNotNull(byNodes.bestMove());
+        Assertions.assertTrue(byNodes.nodes() < 20_000 + 2048);
+
+        long start = System.nanoTime();
+        SearchResult byTime = new Search().search(game, SearchLimits.time(200));
+        Assertions.assertTrue((System.nanoTime() - start) / 1_000_000 < 1_000);
+        Assertions.assertNotNull(byTime.bestMove());
+        Assertions.assertTrue(game.legalMoves().contains(byTime.bestMove()));
+
+        Assertions.assertEquals(before, game.toFen());
+    }
+
+    @Test
+    @DisplayName("Reports Each Iteration")
+    public void reportsIterations() {
+        List<SearchResult> iterations = new ArrayList<>();
+        SearchResult result = new Search().search(new ChessGame(), SearchLimits.depth(4), iterations::add);
+        Assertions.assertEquals(List.of(1, 2, 3, 4), iterations.stream().map(SearchResult::depth).toList());
+        Assertions.assertEquals(result, iterations.getLast());
+    }
+
+    @Test
+    @DisplayName("Stop From Another Thread")
+    public void stop() throws Exception {
+        Search search = new Search();
+        Thread stopper = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {
+            }
+            search.stop();
+        });
+        stopper.start();
+        ChessMove best = search.search(new ChessGame(), SearchLimits.depth(Search.MAX_PLY)).bestMove();
+        stopper.join();
+        Assertions.assertNotNull(best);
+    }
+}
@@ -0,0 +1,138 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.PackedMove;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TranspositionTableTest {
+
+    private static final int MOVE = PackedMove.of(12, 28, PackedMove.DOUBLE_PUSH);
+
+    @Test
+    @DisplayName("Store And Probe")
+    public void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x1234_5678_9ABC_DEF0L;
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(key));
+
+        table.store(key, MOVE, -137, 9, TranspositionTable.LOWER, 3);
+        long entry = table.probe(key);
+        Assertions.assertEquals(MOVE, TranspositionTable.move(entry));
+        Assertions.assertEquals(-137, TranspositionTable.score(entry, 5));
+        Assertions.assertEquals(9, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+
+        // same bucket, different key
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(key ^ (1L << 62)));
+    }
+
+    @Test
+    @DisplayName("Mate Scores Are Stored Relative To The Position")
+    public void mateScores() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 42L;
+        // mate in 3 plies from a position 4 plies below the root
+        table.store(key, MOVE, Search.MATE - 7, 5, TranspositionTable.EXACT, 4);
+        Assertions.assertEquals(Search.MATE - 3, TranspositionTable.score(table.probe(key), 0));
+        Assertions.assertEquals(Search.MATE - 9, TranspositionTable.score(table.probe(key), 6));
+    }
+
+    @Test
+    @DisplayName("Depth Preferred Replacement With Aging")
+    public void replacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long buckets = table.capacity() / TranspositionTable.BUCKET_ENTRIES;
+        long[] keys = new long[TranspositionTable.BUCKET_ENTRIES + 1];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = 7 + i * buckets;
+        }
+        for (int i = 0; i < TranspositionTable.BUCKET_ENTRIES; i++) {
+            table.store(keys[i], MOVE, 0, 10 + i, TranspositionTable.EXACT, 0);
+        }
+        // a full bucket gives up its shallowest entry
+        table.store(keys[4], MOVE, 0, 1, TranspositionTable.EXACT, 0);
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(keys[0]));
+        Assertions.assertNotEquals(TranspositionTable.MISS, table.probe(keys[4]));
+
+        // a shallower result does not overwrite a deeper one from the same search
+        table.store(keys[3], PackedMove.NONE, 50, 2, TranspositionTable.LOWER, 0);
+        Assertions.assertEquals(13, TranspositionTable.depth(table.probe(keys[3])));
+
+        // after enough searches, even the deepest old entries give way
+        for (int i = 0; i < 3; i++) {
+            table.newSearch();
+        }
+        table.store(keys[4], MOVE, 0, 2, TranspositionTable.EXACT, 0);
+        table.store(keys[0], MOVE, 0, 1, TranspositionTable.EXACT, 0);
+        Assertions.assertNotEquals(TranspositionTable.MISS, table.probe(keys[0]));
+        Assertions.assertNotEquals(TranspositionTable.MISS, table.probe(keys[4]));
+    }
+
+    @Test
+    @DisplayName("Searches Within A Time Slice Share A Generation")
+    public void generationSlice() {
+        TranspositionTable shared = new TranspositionTable(1, 60_000);
+        TranspositionTable single = new TranspositionTable(1);
+        for (int i = 0; i < shared.capacity(); i++) {
+            shared.store(i, MOVE, 0, 5, TranspositionTable.EXACT, 0);
+            single.store(i, MOVE, 0, 5, TranspositionTable.EXACT, 0);
+        }
+        for (int i = 0; i < 100; i++) {
+            shared.newSearch();
+        }
+        single.newSearch();
+        Assertions.assertEquals(1000, shared.hashfull());
+        Assertions.assertEquals(0, single.hashfull());
+    }
+
+    @Test
+    @DisplayName("Concurrent Writers Never Produce Wrong Entries")
+    public void concurrentAccess() throws Exception {
+        TranspositionTable table = new TranspositionTable(1);
+        AtomicInteger corrupt = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                long state = seed * 0x9E37_79B9_7F4A_7C15L + 1;
+                for (int i = 0; i < 200_000; i++) {
+                    state ^= state << 13;
+                    state ^= state >>> 7;
+                    state ^= state << 17;
+                    // few distinct keys, so threads collide on the same entries
+                    long key = (state & 0x3FF) * 0x9E37_79B9_7F4A_7C15L;
+                    int depth = (int) (key >>> 58);
+                    long entry = table.probe(key);
+                    if (entry != TranspositionTable.MISS && TranspositionTable.score(entry, 0) != (int) (key & 0x3FF)) {
+                        corrupt.incrementAndGet();
+                    }
+                    table.store(key, MOVE, (int) (key & 0x3FF), depth, TranspositionTable.EXACT, 0);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(0, corrupt.get());
+    }
+
+    @Test
+    @DisplayName("Searches Share A Table")
+    public void sharedSearch() throws Exception {
+        TranspositionTable table = new TranspositionTable(4);
+        ChessGame game = ChessGame.fromFen("kbK5/pp6/1P6/8/8/8/8/R7 w - - 0 1");
+        SearchResult first = new Search(table).search(game, SearchLimits.depth(5));
+        SearchResult second = new Search(table).search(game, SearchLimits.depth(5));
+        Assertions.assertEquals(first.bestMove(), second.bestMove());
+        Assertions.assertEquals(2, second.mateIn());
+        Assertions.assertTrue(second.nodes() <= first.nodes());
+        Assertions.assertTrue(table.hashfull() >= 0);
+    }
+}
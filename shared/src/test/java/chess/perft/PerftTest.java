@@ -0,0 +1,117 @@
+package chess.perft;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class PerftTest {
+
+    private static void assertPerft(PerftPosition position, int depth) {
+        for (Perft.Generator generator : Perft.Generator.values()) {
+            ChessGame game = ChessGame.fromFen(position.fen());
+            Assertions.assertEquals(position.expected(depth), new Perft(generator).count(game, depth),
+                    position.name() + " perft(" + depth + ") using " + generator);
+        }
+    }
+
+    @Test
+    @DisplayName("Start Position")
+    public void startPosition() {
+        assertPerft(PerftSuite.START, 4);
+    }
+
+    @Test
+    @DisplayName("Kiwipete")
+    public void kiwipete() {
+        assertPerft(PerftSuite.KIWIPETE, 3);
+    }
+
+    @Test
+    @DisplayName("Rook Endgame")
+    public void endgame() {
+        assertPerft(PerftSuite.ENDGAME, 4);
+    }
+
+    @Test
+    @DisplayName("Promotions")
+    public void promotions() {
+        assertPerft(PerftSuite.PROMOTIONS, 3);
+    }
+
+    @Test
+    @DisplayName("Talkchess")
+    public void talkchess() {
+        assertPerft(PerftSuite.TALKCHESS, 3);
+    }
+
+    @Test
+    @DisplayName("Middlegame")
+    public void middlegame() {
+        assertPerft(PerftSuite.MIDDLEGAME, 3);
+    }
+
+    @Test
+    @DisplayName("Counting Leaves Restores the Game")
+    public void countRestoresGame() {
+        ChessGame game = ChessGame.fromFen(PerftSuite.KIWIPETE.fen());
+        ChessGame copy = ChessGame.fromFen(PerftSuite.KIWIPETE.fen());
+        new Perft(Perft.Generator.LEGAL_MOVES).count(game, 3);
+        Assertions.assertEquals(copy, game);
+        Assertions.assertEquals(copy.getZobristKey(), game.getZobristKey());
+
+        // a move taken back can still be redone after counting
+        int[] moves = new int[ChessGame.MAX_MOVES];
+        game.generateLegalMoves(moves);
+        game.doMove(moves[0]);
+        game.undoMove();
+        new Perft(Perft.Generator.VALID_MOVES).count(game, 2);
+        new Perft(Perft.Generator.LEGAL_MOVES).divide(game, 2);
+        Assertions.assertTrue(game.canRedo());
+    }
+
+    @Test
+    @DisplayName("Divide Sums to Count")
+    public void divide() {
+        ChessGame game = ChessGame.fromFen(PerftSuite.START.fen());
+        Map<String, Long> split = new Perft(Perft.Generator.LEGAL_MOVES).divide(game, 3);
+        Assertions.assertEquals(20, split.size());
+        Assertions.assertEquals(PerftSuite.START.expected(3), split.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(600L, split.get("e2e4"));
+        Assertions.assertEquals(440L, split.get("g1f3"));
+    }
+
+    @Test
+    @DisplayName("Parallel Count Matches Sequential Count")
+    public void countParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ChessGame game = ChessGame.fromFen(PerftSuite.MIDDLEGAME.fen());
+            long key = game.getZobristKey();
+            Assertions.assertEquals(PerftSuite.MIDDLEGAME.expected(4),
+                    new Perft(Perft.Generator.LEGAL_MOVES).countParallel(game, 4, pool));
+            Assertions.assertEquals(key, game.getZobristKey(), "The counted game should not be modified");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel Count of Many Positions")
+    public void countAllParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<ChessGame> games = List.of(ChessGame.fromFen(PerftSuite.START.fen()),
+                    ChessGame.fromFen(PerftSuite.TALKCHESS.fen()), ChessGame.fromFen(PerftSuite.MIDDLEGAME.fen()));
+            long[] counts = new Perft(Perft.Generator.LEGAL_MOVES).countAllParallel(games, 4, pool);
+            Assertions.assertArrayEquals(new long[]{PerftSuite.START.expected(4), PerftSuite.TALKCHESS.expected(4),
+                    PerftSuite.MIDDLEGAME.expected(4)}, counts);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.GameTermination;
+import chess.Notation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Map;
+
+public class PgnTest {
+
+    private static final String SCHOLARS_MATE = """
+            [Event "Casual"]
+            [Site "?"]
+            [White "Alice"]
+            [Black "Bob \\"the Brave\\""]
+            [Result "1-0"]
+
+            1. e4 e5 {the classical reply} 2. Bc4 (2. Nf3 Nc6 (2... d6) 3. Bb5) Nc6 $2
+            3. Qh5 Nf6?? ; a blunder
+            4. Qxf7# 1-0
+            """;
+
+    @Test
+    @DisplayName("Read Annotated Game")
+    public void readAnnotatedGame() throws Exception {
+        PgnReader reader = new PgnReader(new StringReader(SCHOLARS_MATE));
+        PgnGame game = reader.next();
+        Assertions.assertNotNull(game);
+        Assertions.assertEquals("Alice", game.getTag("White"));
+        Assertions.assertEquals("Bob \"the Brave\"", game.getTag("Black"));
+        Assertions.assertEquals(7, game.getGame().getMoveHistory().size());
+        Assertions.assertEquals(GameTermination.CHECKMATE, game.getGame().getTermination());
+        Assertions.assertEquals(PgnGame.WHITE_WINS, game.getResult());
+        Assertions.assertNull(reader.next());
+        Assertions.assertEquals(1, reader.getGamesRead());
+        Assertions.assertEquals(7, reader.getMovesRead());
+    }
+
+    @Test
+    @DisplayName("Illegal Move Rejects Only Its Game")
+    public void illegalMove() throws Exception {
+        String pgn = """
+                [Event "Bad"]
+
+                1. e4 e5 2. Ke3 Nc6 1-0
+
+                [Event "Good"]
+
+                1. d4 d5 *
+                """;
+        PgnReader reader = new PgnReader(new StringReader(pgn));
+        PgnException e = Assertions.assertThrows(PgnException.class, reader::next);
+        Assertions.assertEquals(3, e.getLineNumber());
+        PgnGame game = reader.next();
+        Assertions.assertEquals("Good", game.getTag("Event"));
+        Assertions.assertEquals(2, game.getGame().getMoveHistory().size());
+        Assertions.assertEquals(PgnGame.UNFINISHED, game.getResult());
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Skipping A Long Run Of Bad Input")
+    public void skipLongBadInput() throws Exception {
+        // thousands of overlong tokens in a row, each rejected in turn while skipping
+        String pgn = "[Event \"Bad\"]\n\n1. e4 " + "x".repeat(PgnReader.MAX_TOKEN_LENGTH * 5_000)
+                + " *\n\n[Event \"Good\"]\n\n1. d4 *\n";
+        PgnGame[] good = new PgnGame[1];
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(null, () -> {
+            try {
+                PgnReader reader = new PgnReader(new StringReader(pgn));
+                Assertions.assertThrows(PgnException.class, reader::next);
+                good[0] = reader.next();
+            } catch (Throwable t) {
+                failure[0] = t;
+            }
+        }, "pgn-reader", 256 * 1024);
+        thread.start();
+        thread.join();
+        Assertions.assertNull(failure[0]);
+        Assertions.assertEquals("Good", good[0].getTag("Event"));
+    }
+
+    @Test
+    @DisplayName("Result Contradicting Checkmate")
+    public void wrongResult() {
+        PgnReader reader = new PgnReader(new StringReader(SCHOLARS_MATE.replace("4. Qxf7# 1-0", "4. Qxf7# 0-1")));
+        Assertions.assertThrows(PgnException.class, reader::next);
+    }
+
+    @Test
+    @DisplayName("Round Trip")
+    public void roundTrip() throws Exception {
+        PgnGame original = new PgnReader(new StringReader(SCHOLARS_MATE)).next();
+        StringWriter out = new StringWriter();
+        new PgnWriter(out).write(original);
+
+        String text = out.toString();
+        Assertions.assertTrue(text.startsWith("[Event \"Casual\"]\n[Site \"?\"]\n[Date \"????.??.??\"]\n"));
+        Assertions.assertTrue(text.contains("1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0\n"));
+
+        PgnGame copy = new PgnReader(new StringReader(text)).next();
+        Assertions.assertEquals(original.getGame(), copy.getGame());
+        Assertions.assertEquals(original.getGame().getMoveHistory(), copy.getGame().getMoveHistory());
+        Assertions.assertEquals(original.getTag("Black"), copy.getTag("Black"));
+    }
+
+    @Test
+    @DisplayName("Set Up Position")
+    public void setUpPosition() throws Exception {
+        String fen = "r3k3/1P6/8/8/8/8/8/4K3 b q - 0 40";
+        String pgn = "[SetUp \"1\"]\n[FEN \"" + fen + "\"]\n\n40... Kd7 41. bxa8=Q *\n";
+        PgnGame game = new PgnReader(new StringReader(pgn)).next();
+        Assertions.assertEquals("Q7/3k4/8/8/8/8/8/4K3 b - - 0 41", game.getGame().toFen());
+
+        StringWriter out = new StringWriter();
+        new PgnWriter(out).write(game);
+        Assertions.assertTrue(out.toString().contains("[FEN \"" + fen + "\"]"));
+        Assertions.assertTrue(out.toString().contains("40... Kd7 41. bxa8=Q *"));
+    }
+
+    @Test
+    @DisplayName("Long Games Wrap")
+    public void longGamesWrap() throws Exception {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 20; i++) {
+            for (String uci : new String[] {"g1f3", "g8f6", "f3g1", "f6g8"}) {
+                game.doMove(game.findLegalMove(Notation.parseUci(uci)));
+            }
+        }
+        StringWriter out = new StringWriter();
+        new PgnWriter(out).write(Map.of("Event", "Shuffle"), game);
+        for (String line : out.toString().split("\n")) {
+            Assertions.assertTrue(line.length() <= PgnWriter.LINE_LENGTH, line);
+        }
+    }
+}